@@ -0,0 +1,154 @@
+package com.example.cliniccare.config;
+
+import com.example.cliniccare.entity.OAuth2LoginState;
+import com.example.cliniccare.repository.OAuth2LoginStateRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/*
+ * Short-lived state for the Google login endpoints, so the rest of the API can run without an HttpSession:
+ * the authorization request between /oauth2/authorization/google and /login/oauth2/code/google, and the
+ * one-time code the frontend exchanges at /api/auth/oauth2-data. Kept in the database so each step may
+ * land on a different instance; every entry is consumed at most once.
+ */
+@Component
+public class OAuth2LoginStateStore implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+    private static final Duration AUTHORIZATION_REQUEST_TTL = Duration.ofMinutes(5);
+    private static final Duration LOGIN_CODE_TTL = Duration.ofMinutes(1);
+
+    private final OAuth2LoginStateRepository oAuth2LoginStateRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public record LoginResult(String email, String name) implements Serializable {}
+
+    @Autowired
+    public OAuth2LoginStateStore(OAuth2LoginStateRepository oAuth2LoginStateRepository) {
+        this.oAuth2LoginStateRepository = oAuth2LoginStateRepository;
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        String state = request.getParameter(OAuth2ParameterNames.STATE);
+        if (state == null) {
+            return null;
+        }
+
+        return oAuth2LoginStateRepository
+                .findByStateKeyAndTypeAndExpireAtAfter(
+                        state, OAuth2LoginState.StateType.AUTHORIZATION_REQUEST, LocalDateTime.now())
+                .map(entry -> (OAuth2AuthorizationRequest) deserialize(entry.getPayload()))
+                .orElse(null);
+    }
+
+    @Override
+    public void saveAuthorizationRequest(
+            OAuth2AuthorizationRequest authorizationRequest,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        if (authorizationRequest == null) {
+            removeAuthorizationRequest(request, response);
+            return;
+        }
+
+        save(
+                authorizationRequest.getState(),
+                OAuth2LoginState.StateType.AUTHORIZATION_REQUEST,
+                authorizationRequest,
+                AUTHORIZATION_REQUEST_TTL
+        );
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        String state = request.getParameter(OAuth2ParameterNames.STATE);
+        if (state == null) {
+            return null;
+        }
+
+        return (OAuth2AuthorizationRequest) consume(state, OAuth2LoginState.StateType.AUTHORIZATION_REQUEST);
+    }
+
+    public String issueLoginCode(String email, String name) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String code = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        save(code, OAuth2LoginState.StateType.LOGIN_CODE, new LoginResult(email, name), LOGIN_CODE_TTL);
+
+        return code;
+    }
+
+    public LoginResult consumeLoginCode(String code) {
+        if (code == null) {
+            return null;
+        }
+
+        return (LoginResult) consume(code, OAuth2LoginState.StateType.LOGIN_CODE);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        oAuth2LoginStateRepository.deleteAllExpired(LocalDateTime.now());
+    }
+
+    private void save(String key, OAuth2LoginState.StateType type, Serializable value, Duration ttl) {
+        OAuth2LoginState entry = new OAuth2LoginState();
+        entry.setStateKey(key);
+        entry.setType(type);
+        entry.setPayload(serialize(value));
+        entry.setExpireAt(LocalDateTime.now().plus(ttl));
+
+        oAuth2LoginStateRepository.save(entry);
+    }
+
+    // Only the request whose delete removes the row gets the value, so a replayed state or code fails
+    private Object consume(String key, OAuth2LoginState.StateType type) {
+        OAuth2LoginState entry = oAuth2LoginStateRepository
+                .findByStateKeyAndTypeAndExpireAtAfter(key, type, LocalDateTime.now())
+                .orElse(null);
+
+        if (entry == null || oAuth2LoginStateRepository.deleteByStateKeyAndType(key, type) == 0) {
+            return null;
+        }
+
+        return deserialize(entry.getPayload());
+    }
+
+    private byte[] serialize(Serializable value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private Object deserialize(byte[] payload) {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return input.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
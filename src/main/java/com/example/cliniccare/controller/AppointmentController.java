@@ -2,16 +2,23 @@ package com.example.cliniccare.controller;
 
 import com.example.cliniccare.dto.AppointmentDTO;
 import com.example.cliniccare.dto.PaginationDTO;
+import com.example.cliniccare.entity.AppointmentView;
 import com.example.cliniccare.exception.BadRequestException;
+import com.example.cliniccare.exception.ConflictException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.interfaces.AppointmentGroup;
 import com.example.cliniccare.response.ApiResponse;
 import com.example.cliniccare.response.PaginationResponse;
 import com.example.cliniccare.service.AppointmentService;
+import com.example.cliniccare.service.ListStreamService;
+import com.example.cliniccare.utils.ExportWriter;
 import com.example.cliniccare.validation.Validation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -27,22 +34,30 @@ import java.util.UUID;
 public class AppointmentController {
     private static final Logger logger = LoggerFactory.getLogger(AppointmentController.class);
     private final AppointmentService appointmentService;
+    private final ListStreamService listStreamService;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, ListStreamService listStreamService) {
         this.appointmentService = appointmentService;
+        this.listStreamService = listStreamService;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllAppointments() {
+    public ResponseEntity<?> getAllAppointments(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
         try {
-            List<AppointmentDTO> appointments = appointmentService.getAllAppointments();
-
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get all appointments successfully", appointments
-            ));
+            listStreamService.write(request, response, "Get all appointments successfully",
+                    appointmentService.getAllAppointments());
+            return null;
         } catch (Exception e) {
             logger.error("Failed to get all appointments: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
                     false, "Failed to get all appointments", null
             ));
@@ -59,10 +74,12 @@ public class AppointmentController {
             @RequestParam(defaultValue = "") String date,
             @RequestParam(defaultValue = "") String status,
             @RequestParam(required = false) UUID patientId,
-            @RequestParam(required = false) UUID userId
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count
     ) {
         try {
-            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order);
+            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order, cursor, count);
             PaginationResponse<List<AppointmentDTO>> response = appointmentService
                     .getAppointments(paginationDTO, search, date, status, patientId, userId);
 
@@ -83,6 +100,48 @@ public class AppointmentController {
         }
     }
 
+    // Streams every matching appointment as csv or ndjson; filters are checked before anything is sent
+    @GetMapping("/export")
+    public ResponseEntity<?> exportAppointments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "") String search,
+            @RequestParam(defaultValue = "") String date,
+            @RequestParam(defaultValue = "") String status,
+            @RequestParam(required = false) UUID patientId,
+            @RequestParam(required = false) UUID userId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        try {
+            ExportWriter.Format exportFormat = ExportWriter.Format.parse(format);
+            Specification<AppointmentView> spec = appointmentService
+                    .getAppointmentSpecification(search, date, status, patientId, userId);
+
+            appointmentService.exportAppointments(
+                    spec, exportFormat, ExportWriter.toResponse(request, response, exportFormat, "appointments"));
+
+            return null;
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (Exception e) {
+            logger.error("Failed to export appointments: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
+                    false, "Failed to export appointments", null
+            ));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getAppointmentById(@PathVariable UUID id) {
         try {
@@ -122,6 +181,10 @@ public class AppointmentController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
                     false, e.getMessage(), null
             ));
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
         } catch (BadRequestException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(
                     false, e.getMessage(), null
@@ -211,4 +274,23 @@ public class AppointmentController {
             ));
         }
     }
+
+    @GetMapping("/statistics/yearly")
+    public ResponseEntity<?> getYearlyAppointmentStatistics(@RequestParam(required = false) Integer year) {
+        try {
+            List<Long> counts = appointmentService.getAppointmentCountsForYear(year);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    true, "Get yearly appointment statistics successfully", counts
+            ));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (Exception e) {
+            logger.error("Failed to retrieve yearly appointment statistics: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
+                    false, "Failed to get yearly appointment statistics", null
+            ));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.cliniccare.controller;
 
+import com.example.cliniccare.config.OAuth2LoginStateStore;
 import com.example.cliniccare.dto.LoginDTO;
 import com.example.cliniccare.entity.RegistrationProcessRequest;
 import com.example.cliniccare.dto.UserDTO;
@@ -29,7 +30,6 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -43,6 +43,7 @@ public class AuthController {
     private final TokenBlacklistService tokenBlacklistService;
     private final AuthService authService;
     private final AuthenticationManager authenticationManager;
+    private final OAuth2LoginStateStore oAuth2LoginStateStore;
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     @Autowired
@@ -50,12 +51,14 @@ public class AuthController {
             JwtService jwtService,
             TokenBlacklistService tokenBlacklistService,
             AuthService authService,
-            AuthenticationManager authenticationManager
+            AuthenticationManager authenticationManager,
+            OAuth2LoginStateStore oAuth2LoginStateStore
     ) {
         this.tokenBlacklistService = tokenBlacklistService;
         this.jwtService = jwtService;
         this.authService = authService;
         this.authenticationManager = authenticationManager;
+        this.oAuth2LoginStateStore = oAuth2LoginStateStore;
     }
 
     @PostMapping("/login")
@@ -138,16 +141,15 @@ public class AuthController {
     }
 
     @GetMapping("/oauth2-data")
-    public ResponseEntity<?> getOAuth2Data(Authentication authentication) {
-        if (authentication == null || !(authentication.getPrincipal() instanceof OAuth2User principal)) {
+    public ResponseEntity<?> getOAuth2Data(@RequestParam(required = false) String code) {
+        OAuth2LoginStateStore.LoginResult loginResult = oAuth2LoginStateStore.consumeLoginCode(code);
+
+        if (loginResult == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponse<>(false, "Unauthorized", null));
         }
 
-        String email = principal.getAttribute("email");
-        String name = principal.getAttribute("name");
-
-        User user = authService.findOrCreateUserFromOAuth(email, name);
+        User user = authService.findOrCreateUserFromOAuth(loginResult.email(), loginResult.name());
         UserInfoDetails userDetails = new UserInfoDetails(user);
 
         String accessToken = jwtService.generateToken(userDetails);
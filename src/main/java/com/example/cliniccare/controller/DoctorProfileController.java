@@ -7,9 +7,12 @@ import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.interfaces.DoctorProfileGroup;
 import com.example.cliniccare.response.ApiResponse;
-import com.example.cliniccare.response.PaginationResponse;
+import com.example.cliniccare.service.CatalogCache;
 import com.example.cliniccare.service.DoctorProfileService;
+import com.example.cliniccare.service.ListStreamService;
 import com.example.cliniccare.validation.Validation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +23,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.UUID;
 
 @CrossOrigin("*")
@@ -29,25 +31,36 @@ import java.util.UUID;
 public class DoctorProfileController {
     private static final Logger logger = LoggerFactory.getLogger(DoctorProfileController.class);
     private final DoctorProfileService doctorProfileService;
+    private final ListStreamService listStreamService;
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public DoctorProfileController(DoctorProfileService doctorProfileService) {
+    public DoctorProfileController(
+            DoctorProfileService doctorProfileService,
+            ListStreamService listStreamService,
+            CatalogCache catalogCache
+    ) {
         this.doctorProfileService = doctorProfileService;
+        this.listStreamService = listStreamService;
+        this.catalogCache = catalogCache;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllDoctorProfiles() {
+    public ResponseEntity<?> getAllDoctorProfiles(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
         try {
-            List<DoctorProfileDTO> doctorProfiles = doctorProfileService.getAllDoctorProfiles();
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get all doctors successfully", doctorProfiles
-            ));
-        } catch (NotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
-                    false, e.getMessage(), null
-            ));
+            listStreamService.write(request, response, "Get all doctors successfully",
+                    doctorProfileService.getAllDoctorProfiles());
+            return null;
         } catch (Exception e) {
             logger.error("Failed to get all doctors: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
             return ResponseEntity.internalServerError().body(new ApiResponse<>(
                     false, "Failed to get doctors", null
             ));
@@ -61,14 +74,16 @@ public class DoctorProfileController {
             @RequestParam(defaultValue = "createAt") String sortBy,
             @RequestParam(defaultValue = "desc") String order,
             @RequestParam(defaultValue = "") String search,
-            @RequestParam(required = false) UUID serviceId
+            @RequestParam(required = false) UUID serviceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count,
+            HttpServletRequest request
     ) {
         try {
-            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order);
-            PaginationResponse<List<DoctorProfileDTO>> response = doctorProfileService
-                    .getDoctorProfiles(paginationDTO, search, serviceId);
+            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order, cursor, count);
 
-            return ResponseEntity.ok(response);
+            return catalogCache.respond(CatalogCache.Region.DOCTORS, request, () -> doctorProfileService
+                    .getDoctorProfiles(paginationDTO, search, serviceId));
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
                     false, e.getMessage(), null
@@ -86,11 +101,10 @@ public class DoctorProfileController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getDoctorProfileById(@PathVariable UUID id) {
+    public ResponseEntity<?> getDoctorProfileById(@PathVariable UUID id, HttpServletRequest request) {
         try {
-            DoctorProfileDTO doctorProfile = doctorProfileService.getDoctorProfileById(id);
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get doctor successfully", doctorProfile
+            return catalogCache.respond(CatalogCache.Region.DOCTORS, request, () -> new ApiResponse<>(
+                    true, "Get doctor successfully", doctorProfileService.getDoctorProfileById(id)
             ));
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
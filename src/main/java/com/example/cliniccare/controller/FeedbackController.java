@@ -6,9 +6,12 @@ import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.interfaces.FeedbackFormGroup;
 import com.example.cliniccare.response.ApiResponse;
-import com.example.cliniccare.response.PaginationResponse;
+import com.example.cliniccare.service.CatalogCache;
 import com.example.cliniccare.service.FeedbackService;
+import com.example.cliniccare.service.ListStreamService;
 import com.example.cliniccare.validation.Validation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,21 +30,36 @@ import java.util.UUID;
 public class FeedbackController {
     private static final Logger logger = LoggerFactory.getLogger(FeedbackController.class);
     private final FeedbackService feedbackService;
+    private final ListStreamService listStreamService;
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public FeedbackController(FeedbackService feedbackService) {
+    public FeedbackController(
+            FeedbackService feedbackService,
+            ListStreamService listStreamService,
+            CatalogCache catalogCache
+    ) {
         this.feedbackService = feedbackService;
+        this.listStreamService = listStreamService;
+        this.catalogCache = catalogCache;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllFeedbacks() {
+    public ResponseEntity<?> getAllFeedbacks(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
         try {
-            List<FeedbackDTO> feedbacks = feedbackService.getAllFeedbacks();
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get all feedbacks successfully", feedbacks
-            ));
+            listStreamService.write(request, response, "Get all feedbacks successfully",
+                    feedbackService.getAllFeedbacks());
+            return null;
         } catch (Exception e) {
             logger.error("Failed to get all feedbacks: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
             return ResponseEntity.internalServerError().body(new ApiResponse<>(
                     false, "Failed to get all feedbacks", null
             ));
@@ -58,14 +76,16 @@ public class FeedbackController {
             @RequestParam(defaultValue = "") String date,
             @RequestParam(required = false) UUID userId,
             @RequestParam(required = false) UUID patientId,
-            @RequestParam(required = false) UUID serviceId
+            @RequestParam(required = false) UUID serviceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count,
+            HttpServletRequest request
     ) {
         try {
-            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order);
-            PaginationResponse<List<FeedbackDTO>> response = feedbackService
-                    .getFeedbacks(paginationDTO, search, date, userId, patientId, serviceId);
+            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order, cursor, count);
 
-            return ResponseEntity.ok(response);
+            return catalogCache.respond(CatalogCache.Region.FEEDBACKS, request, () -> feedbackService
+                    .getFeedbacks(paginationDTO, search, date, userId, patientId, serviceId));
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
                     false, e.getMessage(), null
@@ -83,11 +103,10 @@ public class FeedbackController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getFeedbackById(@PathVariable UUID id) {
+    public ResponseEntity<?> getFeedbackById(@PathVariable UUID id, HttpServletRequest request) {
         try {
-            FeedbackDTO feedback = feedbackService.getFeedbackById(id);
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get feedback successfully", feedback
+            return catalogCache.respond(CatalogCache.Region.FEEDBACKS, request, () -> new ApiResponse<>(
+                    true, "Get feedback successfully", feedbackService.getFeedbackById(id)
             ));
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -2,15 +2,23 @@ package com.example.cliniccare.controller;
 
 import com.example.cliniccare.dto.MedicalRecordDTO;
 import com.example.cliniccare.dto.PaginationDTO;
+import com.example.cliniccare.entity.MedicalRecord;
 import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.interfaces.MedicalRecordGroup;
 import com.example.cliniccare.response.ApiResponse;
 import com.example.cliniccare.response.PaginationResponse;
+import com.example.cliniccare.service.ListStreamService;
 import com.example.cliniccare.service.MedicalRecordService;
+import com.example.cliniccare.utils.ExcelGenerator;
+import com.example.cliniccare.utils.ExportWriter;
 import com.example.cliniccare.validation.Validation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -26,20 +34,29 @@ import java.util.UUID;
 public class MedicalRecordController {
     private static final Logger logger = LoggerFactory.getLogger(MedicalRecordController.class);
     private final MedicalRecordService medicalRecordService;
+    private final ListStreamService listStreamService;
 
-    public MedicalRecordController(MedicalRecordService medicalRecordService) {
+    public MedicalRecordController(MedicalRecordService medicalRecordService, ListStreamService listStreamService) {
         this.medicalRecordService = medicalRecordService;
+        this.listStreamService = listStreamService;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllMedicalRecords() {
+    public ResponseEntity<?> getAllMedicalRecords(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
         try {
-            List<MedicalRecordDTO> medicalRecords = medicalRecordService.getAllMedicalRecords();
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get all medical records successfully", medicalRecords
-            ));
+            listStreamService.write(request, response, "Get all medical records successfully",
+                    medicalRecordService.getAllMedicalRecords());
+            return null;
         } catch (Exception e) {
             logger.error("Failed to get all medical records: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
                     false, "Failed to get all medical records", null
             ));
@@ -56,10 +73,12 @@ public class MedicalRecordController {
             @RequestParam(defaultValue = "") String date,
             @RequestParam(required = false) UUID patientId,
             @RequestParam(required = false) UUID doctorId,
-            @RequestParam(required = false) UUID serviceId
+            @RequestParam(required = false) UUID serviceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count
     ) {
         try {
-            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order);
+            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order, cursor, count);
             PaginationResponse<List<MedicalRecordDTO>> response = medicalRecordService
                     .getMedicalRecord(paginationDTO, search, date, patientId, doctorId, serviceId);
 
@@ -80,6 +99,54 @@ public class MedicalRecordController {
         }
     }
 
+    // Written straight to the response as xlsx, csv or ndjson; filters are checked before anything is sent
+    @GetMapping("/export")
+    public ResponseEntity<?> exportMedicalRecords(
+            @RequestParam(defaultValue = "xlsx") String format,
+            @RequestParam(defaultValue = "") String search,
+            @RequestParam(defaultValue = "") String date,
+            @RequestParam(required = false) UUID patientId,
+            @RequestParam(required = false) UUID doctorId,
+            @RequestParam(required = false) UUID serviceId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        try {
+            Specification<MedicalRecord> spec = medicalRecordService
+                    .getMedicalRecordSpecification(search, date, patientId, doctorId, serviceId);
+
+            if (format.equalsIgnoreCase("xlsx")) {
+                response.setContentType(ExcelGenerator.CONTENT_TYPE);
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"medical-records.xlsx\"");
+                medicalRecordService.exportMedicalRecords(spec, response.getOutputStream());
+            } else {
+                ExportWriter.Format exportFormat = ExportWriter.Format.parse(format);
+                medicalRecordService.exportMedicalRecords(
+                        spec, exportFormat, ExportWriter.toResponse(request, response, exportFormat, "medical-records"));
+            }
+
+            return null;
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (Exception e) {
+            logger.error("Failed to export medical records: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
+                    false, "Failed to export medical records", null
+            ));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getMedicalRecordById(@PathVariable UUID id) {
         try {
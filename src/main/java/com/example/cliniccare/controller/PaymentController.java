@@ -2,17 +2,22 @@ package com.example.cliniccare.controller;
 
 import com.example.cliniccare.dto.PaginationDTO;
 import com.example.cliniccare.dto.PaymentDTO;
+import com.example.cliniccare.entity.Payment;
 import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.response.ApiResponse;
 import com.example.cliniccare.response.PaginationResponse;
+import com.example.cliniccare.service.ListStreamService;
 import com.example.cliniccare.service.PaymentService;
+import com.example.cliniccare.utils.ExportWriter;
 import com.example.cliniccare.validation.Validation;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -28,22 +33,30 @@ import java.util.UUID;
 public class PaymentController {
     private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
     private final PaymentService paymentService;
+    private final ListStreamService listStreamService;
 
     @Autowired
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, ListStreamService listStreamService) {
         this.paymentService = paymentService;
+        this.listStreamService = listStreamService;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllPayments() {
+    public ResponseEntity<?> getAllPayments(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
         try {
-            List<PaymentDTO> payments = paymentService.getAllPayments();
-
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Payments retrieved successfully", payments
-            ));
+            listStreamService.write(request, response, "Payments retrieved successfully",
+                    paymentService.getAllPayments());
+            return null;
         } catch (Exception e) {
             logger.error("Failed to retrieve payments: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
                     false, "Failed to retrieve payments", null
             ));
@@ -62,10 +75,12 @@ public class PaymentController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String method,
             @RequestParam(required = false) String date,
-            @RequestParam(required = false) String price
+            @RequestParam(required = false) String price,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count
     ) {
         try {
-            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order);
+            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order, cursor, count);
             PaginationResponse<List<PaymentDTO>> response = paymentService
                     .getPayments(paginationDTO, patientId, serviceId, search, status, method, date, price);
 
@@ -86,6 +101,50 @@ public class PaymentController {
         }
     }
 
+    // Streams every matching payment as csv or ndjson; filters are checked before anything is sent
+    @GetMapping("/export")
+    public ResponseEntity<?> exportPayments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "") String search,
+            @RequestParam(required = false) UUID patientId,
+            @RequestParam(required = false) UUID serviceId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String price,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
+        try {
+            ExportWriter.Format exportFormat = ExportWriter.Format.parse(format);
+            Specification<Payment> spec = paymentService
+                    .getPaymentSpecification(patientId, serviceId, search, status, method, date, price);
+
+            paymentService.exportPayments(
+                    spec, exportFormat, ExportWriter.toResponse(request, response, exportFormat, "payments"));
+
+            return null;
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (Exception e) {
+            logger.error("Failed to export payments: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
+                    false, "Failed to export payments", null
+            ));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getPaymentById(@PathVariable UUID id) {
         try {
@@ -198,4 +257,16 @@ public class PaymentController {
         );
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/revenues/yearly")
+    public ResponseEntity<ApiResponse<List<Double>>> getYearlyRevenue(@RequestParam Integer year) {
+        List<Double> revenues = paymentService.getRevenuesForYear(year);
+
+        ApiResponse<List<Double>> response = new ApiResponse<>(
+                true,
+                "Get yearly revenue successfully",
+                revenues
+        );
+        return ResponseEntity.ok(response);
+    }
 }
@@ -53,10 +53,12 @@ public class PromotionController {
             @RequestParam(defaultValue = "desc") String order,
             @RequestParam(defaultValue = "") String search,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String discount
+            @RequestParam(required = false) String discount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count
     ) {
         try {
-            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order);
+            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order, cursor, count);
             PaginationResponse<List<PromotionDTO>> response = promotionService
                     .getPromotions(paginationDTO, search, status, discount);
 
@@ -7,9 +7,12 @@ import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.interfaces.ScheduleFormGroup;
 import com.example.cliniccare.response.ApiResponse;
-import com.example.cliniccare.response.PaginationResponse;
+import com.example.cliniccare.service.CatalogCache;
+import com.example.cliniccare.service.ListStreamService;
 import com.example.cliniccare.service.ScheduleService;
 import com.example.cliniccare.validation.Validation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,19 +31,25 @@ import java.util.UUID;
 public class ScheduleController {
     private static final Logger logger = LoggerFactory.getLogger(ScheduleController.class);
     private final ScheduleService scheduleService;
+    private final ListStreamService listStreamService;
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public ScheduleController(ScheduleService scheduleService) {
+    public ScheduleController(
+            ScheduleService scheduleService,
+            ListStreamService listStreamService,
+            CatalogCache catalogCache
+    ) {
         this.scheduleService = scheduleService;
+        this.listStreamService = listStreamService;
+        this.catalogCache = catalogCache;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getScheduleById(@PathVariable UUID id) {
+    public ResponseEntity<?> getScheduleById(@PathVariable UUID id, HttpServletRequest request) {
         try {
-            ScheduleDTO schedule = scheduleService.getScheduleById(id);
-
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get schedule successfully", schedule
+            return catalogCache.respond(CatalogCache.Region.SCHEDULES, request, () -> new ApiResponse<>(
+                    true, "Get schedule successfully", scheduleService.getScheduleById(id)
             ));
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
@@ -55,17 +64,47 @@ public class ScheduleController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllSchedules(@RequestParam(required = false) UUID userId) {
+    public ResponseEntity<?> getAllSchedules(
+            @RequestParam(required = false) UUID userId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
         try {
-            List<ScheduleDTO> schedules = scheduleService.getAllSchedules(userId);
+            listStreamService.write(request, response, "Get all schedules successfully",
+                    scheduleService.getAllSchedules(userId));
+            return null;
+        } catch (Exception e) {
+            logger.error("Failed to get all schedules: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
+                    false, "Failed to get all schedules", null
+            ));
+        }
+    }
 
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailability(
+            @RequestParam(required = false) UUID doctorId,
+            @RequestParam(required = false) UUID serviceId,
+            @RequestParam(defaultValue = "") String from,
+            @RequestParam(defaultValue = "") String to
+    ) {
+        try {
             return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get all schedules successfully", schedules
+                    true, "Get availability successfully", scheduleService.getAvailability(doctorId, serviceId, from, to)
+            ));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(
+                    false, e.getMessage(), null
             ));
         } catch (Exception e) {
-            logger.error("Failed to get all schedules: {}", e.getMessage(), e);
+            logger.error("Failed to get availability: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
-                    false, "Failed to get all schedules", null
+                    false, "Failed to get availability", null
             ));
         }
     }
@@ -81,14 +120,16 @@ public class ScheduleController {
             @RequestParam(defaultValue = "") String time,
             @RequestParam(defaultValue = "") String status,
             @RequestParam(required = false) UUID serviceId,
-            @RequestParam(required = false) UUID userId
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count,
+            HttpServletRequest request
     ) {
         try {
-            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order);
-            PaginationResponse<List<ScheduleDTO>> response = scheduleService
-                    .getSchedules(paginationDTO, search, date, time, status, serviceId, userId);
+            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order, cursor, count);
 
-            return ResponseEntity.ok(response);
+            return catalogCache.respond(CatalogCache.Region.SCHEDULES, request, () -> scheduleService
+                    .getSchedules(paginationDTO, search, date, time, status, serviceId, userId));
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
                     false, e.getMessage(), null
@@ -7,9 +7,10 @@ import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.interfaces.ServiceFormGroup;
 import com.example.cliniccare.response.ApiResponse;
-import com.example.cliniccare.response.PaginationResponse;
+import com.example.cliniccare.service.CatalogCache;
 import com.example.cliniccare.service.ServiceManager;
 import com.example.cliniccare.validation.Validation;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,18 +30,22 @@ import java.util.UUID;
 public class ServiceController {
     private static final Logger logger = LoggerFactory.getLogger(ServiceController.class);
     private final ServiceManager serviceManager;
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public ServiceController(ServiceManager serviceManager) {
+    public ServiceController(ServiceManager serviceManager, CatalogCache catalogCache) {
         this.serviceManager = serviceManager;
+        this.catalogCache = catalogCache;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllServices(@RequestParam(defaultValue = "") String service) {
+    public ResponseEntity<?> getAllServices(
+            @RequestParam(defaultValue = "") String service,
+            HttpServletRequest request
+    ) {
         try {
-            List<ServiceDTO> services = serviceManager.getAllServices(service);
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get all services successfully", services
+            return catalogCache.respond(CatalogCache.Region.SERVICES, request, () -> new ApiResponse<>(
+                    true, "Get all services successfully", serviceManager.getAllServices(service)
             ));
         } catch (Exception e) {
             logger.error("Failed to get all services: {}", e.getMessage(), e);
@@ -58,14 +63,16 @@ public class ServiceController {
             @RequestParam(defaultValue = "desc") String order,
             @RequestParam(defaultValue = "") String search,
             @RequestParam(defaultValue = "") String price,
-            @RequestParam(defaultValue = "") String status
+            @RequestParam(defaultValue = "") String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count,
+            HttpServletRequest request
     ) {
         try {
-            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order);
-            PaginationResponse<List<ServiceDTO>> response = serviceManager
-                    .getServices(paginationDTO, search, price, status);
+            PaginationDTO paginationDTO = new PaginationDTO(page, size, sortBy, order, cursor, count);
 
-            return ResponseEntity.ok(response);
+            return catalogCache.respond(CatalogCache.Region.SERVICES, request, () -> serviceManager
+                    .getServices(paginationDTO, search, price, status));
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(
                     false, e.getMessage(), null
@@ -83,11 +90,10 @@ public class ServiceController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getServiceById(@PathVariable UUID id) {
+    public ResponseEntity<?> getServiceById(@PathVariable UUID id, HttpServletRequest request) {
         try {
-            ServiceDTO service = serviceManager.getServiceById(id);
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get service successfully", service
+            return catalogCache.respond(CatalogCache.Region.SERVICES, request, () -> new ApiResponse<>(
+                    true, "Get service successfully", serviceManager.getServiceById(id)
             ));
         } catch (NotFoundException e){
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
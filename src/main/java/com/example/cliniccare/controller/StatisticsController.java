@@ -0,0 +1,52 @@
+package com.example.cliniccare.controller;
+
+import com.example.cliniccare.entity.DailyStat;
+import com.example.cliniccare.exception.BadRequestException;
+import com.example.cliniccare.response.ApiResponse;
+import com.example.cliniccare.service.DailyStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/api/statistics")
+public class StatisticsController {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsController.class);
+    private final DailyStatsService dailyStatsService;
+
+    @Autowired
+    public StatisticsController(DailyStatsService dailyStatsService) {
+        this.dailyStatsService = dailyStatsService;
+    }
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcile(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        try {
+            List<DailyStat> stats = dailyStatsService.reconcile(from, to);
+
+            return ResponseEntity.ok(new ApiResponse<>(
+                    true, "Rebuild daily statistics successfully", stats
+            ));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (Exception e) {
+            logger.error("Failed to rebuild daily statistics: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
+                    false, "Failed to rebuild daily statistics", null
+            ));
+        }
+    }
+}
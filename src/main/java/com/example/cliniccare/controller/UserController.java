@@ -8,8 +8,11 @@ import com.example.cliniccare.dto.PaginationDTO;
 import com.example.cliniccare.interfaces.UserFormGroup;
 import com.example.cliniccare.response.ApiResponse;
 import com.example.cliniccare.response.PaginationResponse;
+import com.example.cliniccare.service.ListStreamService;
 import com.example.cliniccare.service.UserService;
 import com.example.cliniccare.validation.Validation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,21 +32,30 @@ import java.util.UUID;
 public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private final UserService userService;
+    private final ListStreamService listStreamService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ListStreamService listStreamService) {
         this.userService = userService;
+        this.listStreamService = listStreamService;
     }
 
     @GetMapping("/patients/all")
-    public ResponseEntity<?> getAllPatients() {
+    public ResponseEntity<?> getAllPatients(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
         try {
-            List<UserDTO> patients = userService.getAllPatient();
-            return ResponseEntity.ok(new ApiResponse<>(
-                    true, "Get all patients successfully", patients
-            ));
+            listStreamService.write(request, response, "Get all patients successfully",
+                    userService.getAllPatient());
+            return null;
         } catch (Exception e) {
             logger.error("Failed to get all patients: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
+
+            response.reset();
             return ResponseEntity.internalServerError().body(new ApiResponse<>(
                     false, e.getMessage(), null
             ));
@@ -57,10 +69,12 @@ public class UserController {
             @RequestParam(defaultValue = "createAt") String sortBy,
             @RequestParam(defaultValue = "desc") String order,
             @RequestParam(defaultValue = "") String search,
-            @RequestParam(required = false) UUID role
+            @RequestParam(required = false) UUID role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count
     ) {
         try {
-            PaginationDTO paginationQuery = new PaginationDTO(page, size, sortBy, order);
+            PaginationDTO paginationQuery = new PaginationDTO(page, size, sortBy, order, cursor, count);
             PaginationResponse<List<UserDTO>> response = userService.getUsers(paginationQuery, search, role);
 
             return ResponseEntity.ok(response);
@@ -238,4 +252,27 @@ public class UserController {
             ));
         }
     }
+
+    @GetMapping("/statistics/yearly")
+    public ResponseEntity<ApiResponse<List<Long>>> getYearlyUserRegistrationStatistics(@RequestParam Integer year) {
+        try {
+            List<Long> counts = userService.getUserRegistrationCountsForYear(year);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    true,
+                    "Get yearly user registration statistics successfully",
+                    counts
+            ));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(
+                    false, e.getMessage(), null
+            ));
+        } catch (Exception e) {
+            logger.error("Failed to retrieve yearly user registration statistics: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(
+                    false,
+                    "Failed to retrieve yearly user registration statistics",
+                    null
+            ));
+        }
+    }
 }
\ No newline at end of file
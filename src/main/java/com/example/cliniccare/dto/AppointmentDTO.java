@@ -2,6 +2,8 @@ package com.example.cliniccare.dto;
 
 import com.example.cliniccare.interfaces.AppointmentGroup;
 import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.AppointmentView;
+import com.example.cliniccare.entity.Schedule;
 import com.example.cliniccare.validation.ValidPhone;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -53,4 +55,17 @@ public class AppointmentDTO {
         this.cancelAt = appointment.getCancelAt();
         this.cancelReason = appointment.getCancelReason();
     }
+
+    public AppointmentDTO(AppointmentView appointment) {
+        this.appointmentId = appointment.getAppointmentId();
+        this.patientName = appointment.getPatientName();
+        this.patientPhone = appointment.getPatientPhone();
+        this.scheduleId = appointment.getScheduleId();
+        this.isCompleted = appointment.getScheduleStatus() == Schedule.ScheduleStatus.COMPLETED;
+        this.patientId = appointment.getPatientId();
+        this.date = appointment.getDate();
+        this.cancelBy = appointment.getCancelBy();
+        this.cancelAt = appointment.getCancelAt();
+        this.cancelReason = appointment.getCancelReason();
+    }
 }
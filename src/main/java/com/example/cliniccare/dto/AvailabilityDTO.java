@@ -0,0 +1,25 @@
+package com.example.cliniccare.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+public class AvailabilityDTO {
+    private UUID doctorProfileId;
+    private UUID serviceId;
+    private int slotMinutes;
+    // Only days with a free slot: 24 hex digits, one per hour, where 8 = :00, 4 = :15, 2 = :30 and 1 = :45
+    private Map<LocalDate, String> days;
+
+    public AvailabilityDTO() {}
+
+    public AvailabilityDTO(UUID doctorProfileId, UUID serviceId, int slotMinutes, Map<LocalDate, String> days) {
+        this.doctorProfileId = doctorProfileId;
+        this.serviceId = serviceId;
+        this.slotMinutes = slotMinutes;
+        this.days = days;
+    }
+}
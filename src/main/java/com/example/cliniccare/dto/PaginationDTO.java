@@ -5,6 +5,10 @@ public class PaginationDTO {
     public int size;
     public String sortBy;
     public String order;
+    // null for offset pagination, "" for the first keyset page, then the previous page's nextCursor
+    public String cursor;
+    // exact (default), none or cached total count for offset pages
+    public String count;
 
     public PaginationDTO() {}
 
@@ -14,4 +18,10 @@ public class PaginationDTO {
         this.sortBy = sortBy;
         this.order = order;
     }
+
+    public PaginationDTO(int page, int size, String sortBy, String order, String cursor, String count) {
+        this(page, size, sortBy, order);
+        this.cursor = cursor;
+        this.count = count;
+    }
 }
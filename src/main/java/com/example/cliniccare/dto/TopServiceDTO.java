@@ -16,6 +16,15 @@ public class TopServiceDTO {
     private int discount;
     private long count;
 
+    public TopServiceDTO(UUID serviceId, String name, String image, Double price, Integer discount, Long count) {
+        this.serviceId = serviceId;
+        this.name = name;
+        this.image = image;
+        this.price = price;
+        this.discount = discount;
+        this.count = count;
+    }
+
     public TopServiceDTO(Service service, long count) {
         this.serviceId = service.getServiceId();
         this.name = service.getName();
@@ -11,7 +11,20 @@ import java.util.UUID;
 @Setter
 @ToString
 @RequiredArgsConstructor
-@Table(name = "appointments")
+@NamedEntityGraph(name = "Appointment.dto", attributeNodes = @NamedAttributeNode("schedule"))
+@Table(
+        name = "appointments",
+        indexes = {
+                @Index(name = "idx_appointments_date", columnList = "date"),
+                @Index(name = "idx_appointments_cancel_at", columnList = "cancel_at"),
+                // Keeps the schedule_id foreign key indexed once the legacy unique key is dropped, see SchemaMigrations
+                @Index(name = "idx_appointments_schedule_id", columnList = "schedule_id")
+        },
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_appointments_active_schedule_id",
+                columnNames = "active_schedule_id"
+        )
+)
 public class Appointment {
     @Id
     @Column(name = "appointment_id")
@@ -24,12 +37,19 @@ public class Appointment {
     @Column(name = "patient_phone")
     private String patientPhone;
 
-    @OneToOne
+    // A cancelled slot can be booked again, see active_schedule_id
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "schedule_id", referencedColumnName = "schedule_id")
+    @ToString.Exclude
     private Schedule schedule;
 
-    @ManyToOne
+    // Same as schedule_id while the appointment is not cancelled, so a slot has at most one live booking
+    @Column(name = "active_schedule_id")
+    private UUID activeScheduleId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", referencedColumnName = "user_id")
+    @ToString.Exclude
     private User patient;
 
     private LocalDateTime date;
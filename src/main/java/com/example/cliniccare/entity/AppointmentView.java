@@ -0,0 +1,66 @@
+package com.example.cliniccare.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Flattened read model of an appointment and its schedule for the appointment list endpoint.
+// Written by AppointmentViewService in the same transaction as every appointment/schedule change.
+@Entity
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Table(
+        name = "appointment_view",
+        indexes = {
+                @Index(name = "idx_appointment_view_doctor_id_date", columnList = "doctor_id, date"),
+                @Index(name = "idx_appointment_view_patient_id_date", columnList = "patient_id, date"),
+                @Index(name = "idx_appointment_view_status_date", columnList = "status, date"),
+                @Index(name = "idx_appointment_view_schedule_id", columnList = "schedule_id")
+        }
+)
+public class AppointmentView {
+    public enum Status {
+        ACTIVE,
+        CANCELLED,
+        COMPLETED
+    }
+
+    @Id
+    @Column(name = "appointment_id")
+    private UUID appointmentId;
+
+    @Column(name = "patient_name")
+    private String patientName;
+
+    @Column(name = "patient_phone")
+    private String patientPhone;
+
+    @Column(name = "schedule_id")
+    private UUID scheduleId;
+
+    @Column(name = "doctor_id")
+    private UUID doctorId;
+
+    @Column(name = "patient_id")
+    private UUID patientId;
+
+    private LocalDateTime date;
+
+    @Column(name = "cancel_by")
+    private UUID cancelBy;
+
+    @Column(name = "cancel_at")
+    private LocalDateTime cancelAt;
+
+    @Column(name = "cancel_reason")
+    private String cancelReason;
+
+    @Column(name = "schedule_status")
+    private Schedule.ScheduleStatus scheduleStatus;
+
+    private Status status;
+}
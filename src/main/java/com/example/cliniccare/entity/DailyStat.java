@@ -0,0 +1,28 @@
+package com.example.cliniccare.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Table(name = "daily_stats")
+public class DailyStat {
+    @Id
+    private LocalDate date;
+
+    private long appointments;
+
+    private long cancellations;
+
+    private long completions;
+
+    private double revenue;
+
+    @Column(name = "new_patients")
+    private long newPatients;
+}
@@ -12,6 +12,7 @@ import java.util.UUID;
 @Setter
 @ToString
 @RequiredArgsConstructor
+@NamedEntityGraph(name = "DoctorProfile.dto", attributeNodes = @NamedAttributeNode("user"))
 @Table(name = "doctor_profiles")
 public class DoctorProfile {
     @Id
@@ -19,8 +20,9 @@ public class DoctorProfile {
     @Column(name = "doctor_profile_id")
     private UUID doctorProfileId;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "user_id")
+    @ToString.Exclude
     private User user;
 
     private String specialty;
@@ -11,6 +11,15 @@ import java.util.UUID;
 @Setter
 @ToString
 @RequiredArgsConstructor
+@NamedEntityGraph(
+        name = "MedicalRecord.dto",
+        attributeNodes = {
+                @NamedAttributeNode("patient"),
+                @NamedAttributeNode(value = "doctor", subgraph = "doctor"),
+                @NamedAttributeNode("service")
+        },
+        subgraphs = @NamedSubgraph(name = "doctor", attributeNodes = @NamedAttributeNode("user"))
+)
 @Table(name = "medical_records")
 public class MedicalRecord {
     @Id
@@ -18,16 +27,19 @@ public class MedicalRecord {
     @Column(name = "medical_record_id")
     private UUID medicalRecordId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", referencedColumnName = "user_id")
+    @ToString.Exclude
     private User patient;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_profile_id", referencedColumnName = "doctor_profile_id")
+    @ToString.Exclude
     private DoctorProfile doctor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "service_id", referencedColumnName = "service_id")
+    @ToString.Exclude
     private Service service;
 
     private String description;
@@ -0,0 +1,35 @@
+package com.example.cliniccare.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(
+        name = "oauth2_login_states",
+        indexes = @Index(name = "idx_oauth2_login_states_expire_at", columnList = "expire_at")
+)
+public class OAuth2LoginState {
+    public enum StateType {
+        AUTHORIZATION_REQUEST,
+        LOGIN_CODE
+    }
+
+    // The OAuth2 state parameter or the one-time login code
+    @Id
+    @Column(name = "state_key", length = 128)
+    private String stateKey;
+
+    private StateType type;
+
+    @Lob
+    @Column(columnDefinition = "BLOB")
+    private byte[] payload;
+
+    @Column(name = "expire_at")
+    private LocalDateTime expireAt;
+}
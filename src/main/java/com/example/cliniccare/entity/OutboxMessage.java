@@ -0,0 +1,77 @@
+package com.example.cliniccare.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Table(
+        name = "outbox_messages",
+        indexes = {
+                @Index(name = "idx_outbox_messages_status_next_attempt_at", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_outbox_messages_claim_id", columnList = "claim_id")
+        }
+)
+public class OutboxMessage {
+    public enum MessageType {
+        EMAIL,
+        NOTIFICATION
+    }
+
+    public enum MessageStatus {
+        PENDING,
+        SENT,
+        FAILED,
+        // Claimed by a dispatcher, next_attempt_at holds the end of its lease
+        PROCESSING
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "outbox_message_id")
+    private UUID outboxMessageId;
+
+    private MessageType type;
+
+    // Email address for EMAIL, user id for NOTIFICATION
+    private String recipient;
+
+    private String subject;
+
+    @Lob
+    @ToString.Exclude
+    private String payload;
+
+    private MessageStatus status;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // Set by the dispatch run that claimed the message
+    @Column(name = "claim_id")
+    private UUID claimId;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "create_at")
+    private LocalDateTime createAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createAt = LocalDateTime.now();
+        status = MessageStatus.PENDING;
+        nextAttemptAt = createAt;
+    }
+}
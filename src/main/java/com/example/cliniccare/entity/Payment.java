@@ -11,7 +11,17 @@ import java.util.UUID;
 @Setter
 @ToString
 @RequiredArgsConstructor
-@Table(name = "payments")
+@NamedEntityGraph(
+        name = "Payment.dto",
+        attributeNodes = {
+                @NamedAttributeNode("patient"),
+                @NamedAttributeNode("service")
+        }
+)
+@Table(
+        name = "payments",
+        indexes = @Index(name = "idx_payments_status_date", columnList = "status, date")
+)
 public class Payment {
     public enum PaymentStatus {
         PENDING,
@@ -29,12 +39,14 @@ public class Payment {
     @Column(name = "payment_id")
     private UUID paymentId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", referencedColumnName = "user_id")
+    @ToString.Exclude
     private User patient;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "service_id", referencedColumnName = "service_id")
+    @ToString.Exclude
     private Service service;
 
     private LocalDateTime date;
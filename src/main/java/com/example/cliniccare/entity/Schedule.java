@@ -11,7 +11,18 @@ import java.util.UUID;
 @Setter
 @ToString
 @RequiredArgsConstructor
-@Table(name = "schedules")
+@NamedEntityGraph(
+        name = "Schedule.dto",
+        attributeNodes = {
+                @NamedAttributeNode("service"),
+                @NamedAttributeNode(value = "doctor", subgraph = "doctor")
+        },
+        subgraphs = @NamedSubgraph(name = "doctor", attributeNodes = @NamedAttributeNode("user"))
+)
+@Table(
+        name = "schedules",
+        indexes = @Index(name = "idx_schedules_doctor_date_time", columnList = "doctor_profile_id, date_time")
+)
 public class Schedule {
     public enum ScheduleStatus {
         AVAILABLE,
@@ -26,12 +37,14 @@ public class Schedule {
     @Column(name = "schedule_id")
     private UUID scheduleId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "service_id", referencedColumnName = "service_id")
+    @ToString.Exclude
     private Service service;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_profile_id", referencedColumnName = "doctor_profile_id")
+    @ToString.Exclude
     private DoctorProfile doctor;
 
     @Column(name = "date_time")
@@ -40,7 +53,4 @@ public class Schedule {
     private int duration;
 
     private ScheduleStatus status;
-
-    @OneToOne(mappedBy = "schedule")
-    private Appointment appointment;
 }
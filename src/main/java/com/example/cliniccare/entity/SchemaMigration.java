@@ -0,0 +1,20 @@
+package com.example.cliniccare.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "schema_migrations")
+public class SchemaMigration {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+}
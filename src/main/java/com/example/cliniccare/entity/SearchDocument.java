@@ -0,0 +1,41 @@
+package com.example.cliniccare.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+// Searchable text of one row of a list endpoint, including the names of its related rows.
+// Written by SearchService with native INSERT ... SELECT, never through JPA.
+@Entity
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Table(
+        name = "search_documents",
+        indexes = @Index(name = "idx_search_documents_entity_type", columnList = "entity_type")
+)
+public class SearchDocument {
+    public enum EntityType {
+        APPOINTMENT,
+        DOCTOR_PROFILE,
+        FEEDBACK,
+        MEDICAL_RECORD,
+        PAYMENT,
+        PROMOTION,
+        SCHEDULE,
+        SERVICE,
+        USER
+    }
+
+    @Id
+    @Column(name = "entity_id")
+    private UUID entityId;
+
+    @Column(name = "entity_type")
+    private EntityType entityType;
+
+    @Lob
+    private String content;
+}
@@ -13,6 +13,7 @@ import java.util.UUID;
 @Setter
 @ToString
 @RequiredArgsConstructor
+@NamedEntityGraph(name = "Service.dto", attributeNodes = @NamedAttributeNode("promotion"))
 @Table(name = "services")
 public class Service {
     public enum ServiceStatus {
@@ -57,9 +58,10 @@ public class Service {
     @ToString.Exclude
     private List<MedicalRecord> medicalRecordList;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonBackReference
     @JoinColumn(name = "promotion_id", referencedColumnName = "promotion_id")
+    @ToString.Exclude
     private Promotion promotion;
 
     @PrePersist
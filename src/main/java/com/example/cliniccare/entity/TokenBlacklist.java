@@ -9,11 +9,25 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "token_blacklist")
+@Table(
+        name = "token_blacklist",
+        indexes = {
+                @Index(name = "idx_token_blacklist_token_hash", columnList = "token_hash"),
+                @Index(name = "idx_token_blacklist_invalidated_at", columnList = "invalidated_at")
+        }
+)
 public class TokenBlacklist {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String token;
+
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "invalidated_at")
     private LocalDateTime invalidatedAt;
-}
\ No newline at end of file
+
+    @Column(name = "expire_at")
+    private LocalDateTime expireAt;
+}
@@ -2,8 +2,10 @@ package com.example.cliniccare.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,15 +14,27 @@ import java.util.UUID;
 @Setter
 @ToString
 @RequiredArgsConstructor
-@Table(name = "users")
+@NamedEntityGraph(name = "User.dto", attributeNodes = @NamedAttributeNode("role"))
+@NamedEntityGraph(
+        name = "User.auth",
+        attributeNodes = {
+                @NamedAttributeNode("role"),
+                @NamedAttributeNode("doctorProfiles")
+        }
+)
+@Table(
+        name = "users",
+        indexes = @Index(name = "idx_users_create_at", columnList = "create_at")
+)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "user_id")
     private UUID userId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", referencedColumnName = "role_id")
+    @ToString.Exclude
     private Role role;
 
     private String name;
@@ -39,8 +53,14 @@ public class User {
     @Column(name = "delete_at")
     private LocalDateTime deleteAt;
 
-    @OneToOne(mappedBy = "user")
-    private DoctorProfile doctorProfile;
+    // Inverse one-to-one sides are always loaded eagerly by Hibernate, mapped as a collection
+    // so the doctor profile is only read when asked for; use getDoctorProfile()
+    @OneToMany(mappedBy = "user")
+    @BatchSize(size = 50)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private List<DoctorProfile> doctorProfiles = new ArrayList<>();
 
     @OneToMany(mappedBy = "patient")
     @ToString.Exclude
@@ -62,6 +82,17 @@ public class User {
     @ToString.Exclude
     private List<Payment> paymentList;
 
+    public DoctorProfile getDoctorProfile() {
+        return doctorProfiles.isEmpty() ? null : doctorProfiles.getFirst();
+    }
+
+    public void setDoctorProfile(DoctorProfile doctorProfile) {
+        doctorProfiles.clear();
+        if (doctorProfile != null) {
+            doctorProfiles.add(doctorProfile);
+        }
+    }
+
     @PrePersist
     protected void onCreate() {
         createAt = LocalDateTime.now();
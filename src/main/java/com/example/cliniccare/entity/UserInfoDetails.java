@@ -16,6 +16,7 @@ public class UserInfoDetails implements UserDetails {
     private final String password;
     private final String name;
     private final String image;
+    private final UUID doctorProfileId;
     private final GrantedAuthority authority;
 
     public UserInfoDetails(User user) {
@@ -24,9 +25,22 @@ public class UserInfoDetails implements UserDetails {
         this.password = user.getPassword();
         this.name = user.getName();
         this.image = user.getImage();
+        this.doctorProfileId = user.getDoctorProfile() != null
+                ? user.getDoctorProfile().getDoctorProfileId()
+                : null;
         this.authority = new SimpleGrantedAuthority(user.getRole().getName());
     }
 
+    public UserInfoDetails(UUID userId, String username, String role, UUID doctorProfileId) {
+        this.userId = userId;
+        this.username = username;
+        this.password = null;
+        this.name = null;
+        this.image = null;
+        this.doctorProfileId = doctorProfileId;
+        this.authority = new SimpleGrantedAuthority(role);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(authority);
@@ -0,0 +1,25 @@
+package com.example.cliniccare.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@Table(
+        name = "user_session_epochs",
+        indexes = @Index(name = "idx_user_session_epochs_invalidated_at", columnList = "invalidated_at")
+)
+public class UserSessionEpoch {
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    // Access tokens of the user issued before this time are rejected
+    @Column(name = "invalidated_at")
+    private LocalDateTime invalidatedAt;
+}
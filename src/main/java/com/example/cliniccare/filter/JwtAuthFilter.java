@@ -1,12 +1,15 @@
 package com.example.cliniccare.filter;
 
-import com.example.cliniccare.repository.TokenBlacklistRepository;
 import com.example.cliniccare.service.AuthService;
 import com.example.cliniccare.service.JwtService;
+import com.example.cliniccare.service.TokenBlacklistService;
+import com.example.cliniccare.service.UserSessionEpochService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,22 +20,29 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     @Lazy private final AuthService authService;
     private static final String BEARER_PREFIX = "Bearer ";
-    private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final UserSessionEpochService userSessionEpochService;
+
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     public JwtAuthFilter(
             JwtService jwtService,
             @Lazy AuthService authService,
-            TokenBlacklistRepository tokenBlacklistRepository
+            TokenBlacklistService tokenBlacklistService,
+            UserSessionEpochService userSessionEpochService
     ) {
         this.jwtService = jwtService;
         this.authService = authService;
-        this.tokenBlacklistRepository = tokenBlacklistRepository;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.userSessionEpochService = userSessionEpochService;
     }
 
     @Override
@@ -51,18 +61,30 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         try {
             final String jwt = authHeader.substring(BEARER_PREFIX.length());
 
-            if (tokenBlacklistRepository.findByToken(jwt) != null) {
+            if (tokenBlacklistService.isBlacklisted(jwt)) {
                 SecurityContextHolder.clearContext();
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
 
-            final String username = jwtService.extractUsername(jwt);
+            final Claims claims = jwtService.verifyToken(jwt);
+            final String username = claims.getSubject();
+            final UUID userId = jwtService.extractUserId(claims);
+
+            if (userId != null && userSessionEpochService.isInvalidated(userId, claims.getIssuedAt())) {
+                SecurityContextHolder.clearContext();
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = authService.loadUserByUsername(username);
+                UserDetails userDetails = statelessPrincipal ? jwtService.extractUserDetails(claims) : null;
+
+                if (userDetails == null) {
+                    userDetails = authService.loadUserByUsername(username);
+                }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -0,0 +1,160 @@
+package com.example.cliniccare.migration;
+
+import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.SchemaMigration;
+import com.example.cliniccare.repository.AppointmentRepository;
+import com.example.cliniccare.repository.SchemaMigrationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Changes to existing data that ddl-auto=update cannot make. Each step runs once per database, in one
+// transaction with its schema_migrations row: when two instances start together, the second one fails
+// on the primary key and leaves the step to the first. Runs before the seeders.
+@Component
+@Order(0)
+public class SchemaMigrations implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SchemaMigrationRepository schemaMigrationRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public SchemaMigrations(
+            EntityManagerFactory entityManagerFactory,
+            SchemaMigrationRepository schemaMigrationRepository,
+            AppointmentRepository appointmentRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.schemaMigrationRepository = schemaMigrationRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+        apply("appointments-backfill-active-schedule-id", this::backfillActiveScheduleIds);
+        apply("appointments-drop-schedule-id-unique-key", this::dropLegacyScheduleUniqueKeys);
+    }
+
+    private void apply(String name, Runnable step) {
+        if (schemaMigrationRepository.existsById(name)) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                SchemaMigration migration = new SchemaMigration();
+                migration.setName(name);
+                migration.setAppliedAt(LocalDateTime.now());
+                schemaMigrationRepository.saveAndFlush(migration);
+
+                step.run();
+            });
+            logger.info("Applied migration {}", name);
+        } catch (DataIntegrityViolationException e) {
+            if (!schemaMigrationRepository.existsById(name)) {
+                throw e;
+            }
+            logger.info("Migration {} was applied by another instance", name);
+        }
+    }
+
+    // Live appointments booked before active_schedule_id existed have it empty, so the unique key does not
+    // guard their slots. A slot that several of them booked goes to the one already holding it, otherwise to
+    // the earliest booking; the others are reported and keep it empty until they are cancelled by hand.
+    // Returns the number of appointments that got active_schedule_id
+    public int backfillActiveScheduleIds() {
+        Map<UUID, List<Appointment>> bySchedule = appointmentRepository.findLiveAppointmentsOfUnclaimedSchedules()
+                .stream()
+                .collect(Collectors.groupingBy(
+                        appointment -> appointment.getSchedule().getScheduleId(),
+                        LinkedHashMap::new,
+                        Collectors.toList()
+                ));
+
+        int claimed = 0;
+        for (Map.Entry<UUID, List<Appointment>> entry : bySchedule.entrySet()) {
+            List<Appointment> appointments = entry.getValue();
+            Appointment holder = appointments.stream()
+                    .filter(appointment -> appointment.getActiveScheduleId() != null)
+                    .findFirst()
+                    .orElse(appointments.get(0));
+
+            if (holder.getActiveScheduleId() == null) {
+                holder.setActiveScheduleId(entry.getKey());
+                appointmentRepository.save(holder);
+                claimed++;
+            }
+
+            if (appointments.size() > 1) {
+                logger.warn(
+                        "Schedule {} is double-booked: kept appointment {}, left {} without active_schedule_id",
+                        entry.getKey(),
+                        holder.getAppointmentId(),
+                        appointments.stream()
+                                .filter(appointment -> appointment != holder)
+                                .map(Appointment::getAppointmentId)
+                                .toList()
+                );
+            }
+        }
+
+        logger.info("Backfilled active_schedule_id on {} appointments", claimed);
+        return claimed;
+    }
+
+    // Appointment.schedule used to be @OneToOne, for which Hibernate adds a unique key on schedule_id that blocks
+    // booking a cancelled slot again; ddl-auto=update never drops it. The key is found by its only column since
+    // Hibernate generated its name. Returns the number of keys dropped
+    @SuppressWarnings("unchecked")
+    public int dropLegacyScheduleUniqueKeys() {
+        List<String> keys = entityManager.createNativeQuery(
+                        "SELECT tc.constraint_name FROM information_schema.table_constraints tc " +
+                                "JOIN information_schema.key_column_usage k " +
+                                "ON k.constraint_schema = tc.constraint_schema " +
+                                "AND k.constraint_name = tc.constraint_name AND k.table_name = tc.table_name " +
+                                "WHERE tc.table_schema = SCHEMA() AND tc.table_name = 'appointments' " +
+                                "AND tc.constraint_type = 'UNIQUE' " +
+                                "GROUP BY tc.constraint_name " +
+                                "HAVING COUNT(*) = 1 AND MAX(k.column_name) = 'schedule_id'")
+                .getResultList();
+
+        boolean mySql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof MySQLDialect;
+
+        keys.forEach(key -> {
+            transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                            "ALTER TABLE appointments " + (mySql ? "DROP INDEX " : "DROP CONSTRAINT ") + key)
+                    .executeUpdate());
+            logger.info("Dropped unique key {} on appointments.schedule_id", key);
+        });
+
+        return keys.size();
+    }
+}
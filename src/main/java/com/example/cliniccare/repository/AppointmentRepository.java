@@ -1,16 +1,44 @@
 package com.example.cliniccare.repository;
 
 import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.Schedule;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, UUID>, JpaSpecificationExecutor<Appointment> {
-    @Query("SELECT COUNT(a) FROM Appointment a WHERE MONTH(a.date) = :month AND YEAR(a.date) = :year")
-    long countAppointmentsByMonth(@Param("month") int month, @Param("year") int year);
+    @EntityGraph("Appointment.dto")
+    @Override
+    Optional<Appointment> findById(UUID id);
+
+    boolean existsBySchedule_ScheduleId(UUID scheduleId);
+
+    // Every live appointment of the slots that still have a live appointment without active_schedule_id,
+    // earliest booking first
+    @Query("SELECT a FROM Appointment a WHERE a.cancelBy IS NULL AND a.schedule.scheduleId IN (" +
+            "SELECT b.schedule.scheduleId FROM Appointment b WHERE b.cancelBy IS NULL AND b.activeScheduleId IS NULL) " +
+            "ORDER BY a.date ASC, a.appointmentId ASC")
+    List<Appointment> findLiveAppointmentsOfUnclaimedSchedules();
+
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.date >= :start AND a.date < :end")
+    long countAppointmentsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    long countByCancelAtGreaterThanEqualAndCancelAtLessThan(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.cancelBy IS NULL AND a.schedule.status = :status " +
+            "AND a.schedule.dateTime >= :start AND a.schedule.dateTime < :end")
+    long countCompletedAppointmentsBetween(
+            @Param("status") Schedule.ScheduleStatus status,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
 }
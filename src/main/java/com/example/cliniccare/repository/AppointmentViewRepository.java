@@ -0,0 +1,35 @@
+package com.example.cliniccare.repository;
+
+import com.example.cliniccare.entity.AppointmentView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AppointmentViewRepository extends JpaRepository<AppointmentView, UUID>, JpaSpecificationExecutor<AppointmentView> {
+    List<AppointmentView> findAllByScheduleId(UUID scheduleId);
+
+    // Statuses are bound as ordinals to match how the enums are stored. LEFT JOIN so an appointment without a
+    // schedule still gets its row, otherwise backfill() would see the counts differ and rebuild on every start
+    @Modifying
+    @Query(value = "INSERT INTO appointment_view (appointment_id, patient_name, patient_phone, schedule_id, " +
+            "doctor_id, patient_id, date, cancel_by, cancel_at, cancel_reason, schedule_status, status) " +
+            "SELECT a.appointment_id, a.patient_name, a.patient_phone, a.schedule_id, s.doctor_profile_id, " +
+            "a.patient_id, a.date, a.cancel_by, a.cancel_at, a.cancel_reason, s.status, " +
+            "CASE WHEN s.status = :completedSchedule THEN :completed " +
+            "WHEN a.cancel_by IS NOT NULL THEN :cancelled ELSE :active END " +
+            "FROM appointments a LEFT JOIN schedules s ON s.schedule_id = a.schedule_id",
+            nativeQuery = true)
+    int insertAllFromAppointments(
+            @Param("completedSchedule") int completedSchedule,
+            @Param("active") int active,
+            @Param("cancelled") int cancelled,
+            @Param("completed") int completed
+    );
+}
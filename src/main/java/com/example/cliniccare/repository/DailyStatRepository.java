@@ -0,0 +1,36 @@
+package com.example.cliniccare.repository;
+
+import com.example.cliniccare.entity.DailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStatRepository extends JpaRepository<DailyStat, LocalDate> {
+    List<DailyStat> findAllByDateBetweenOrderByDateAsc(LocalDate startDate, LocalDate endDate);
+
+    // Atomic upsert so concurrent requests never lose an increment
+    @Modifying
+    @Query(value = "INSERT INTO daily_stats (date, appointments, cancellations, completions, revenue, new_patients) " +
+            "VALUES (:date, :appointments, :cancellations, :completions, :revenue, :newPatients) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "appointments = appointments + :appointments, " +
+            "cancellations = cancellations + :cancellations, " +
+            "completions = completions + :completions, " +
+            "revenue = revenue + :revenue, " +
+            "new_patients = new_patients + :newPatients",
+            nativeQuery = true)
+    void increment(
+            @Param("date") LocalDate date,
+            @Param("appointments") long appointments,
+            @Param("cancellations") long cancellations,
+            @Param("completions") long completions,
+            @Param("revenue") double revenue,
+            @Param("newPatients") long newPatients
+    );
+}
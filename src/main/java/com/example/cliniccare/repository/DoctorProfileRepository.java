@@ -1,17 +1,28 @@
 package com.example.cliniccare.repository;
 
 import com.example.cliniccare.entity.DoctorProfile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface DoctorProfileRepository extends JpaRepository<DoctorProfile, UUID>, JpaSpecificationExecutor<DoctorProfile> {
-    List<DoctorProfile> findAllByDeleteAtIsNull();
+    @EntityGraph("DoctorProfile.dto")
     Optional<DoctorProfile> findByDoctorProfileIdAndDeleteAtIsNull(UUID doctorProfileId);
+
+    @EntityGraph("DoctorProfile.dto")
     Optional<DoctorProfile> findByUser_UserIdAndDeleteAtIsNull(UUID userId);
+
+    // SELECT ... FOR UPDATE on the doctor row, serializes schedule writes per doctor across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM DoctorProfile d WHERE d.doctorProfileId = :doctorProfileId")
+    Optional<DoctorProfile> findByIdForUpdate(@Param("doctorProfileId") UUID doctorProfileId);
 }
@@ -0,0 +1,32 @@
+package com.example.cliniccare.repository;
+
+import com.example.cliniccare.entity.OAuth2LoginState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OAuth2LoginStateRepository extends JpaRepository<OAuth2LoginState, String> {
+    Optional<OAuth2LoginState> findByStateKeyAndTypeAndExpireAtAfter(
+            String stateKey, OAuth2LoginState.StateType type, LocalDateTime now);
+
+    // Returns 0 when another request (on any instance) already consumed the entry
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OAuth2LoginState s WHERE s.stateKey = :stateKey AND s.type = :type")
+    int deleteByStateKeyAndType(
+            @Param("stateKey") String stateKey,
+            @Param("type") OAuth2LoginState.StateType type
+    );
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OAuth2LoginState s WHERE s.expireAt <= :now")
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,43 @@
+package com.example.cliniccare.repository;
+
+import com.example.cliniccare.entity.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, UUID> {
+    // Due pending messages, plus claimed ones whose lease ran out because their dispatcher died mid-batch
+    @Query("SELECT m.outboxMessageId FROM OutboxMessage m " +
+            "WHERE m.status IN :statuses AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt ASC")
+    List<UUID> findDueIds(
+            @Param("statuses") Collection<OutboxMessage.MessageStatus> statuses,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+
+    // Compare-and-set claim: a message another instance claimed in the meantime no longer matches
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :claimedStatus, m.claimId = :claimId, m.nextAttemptAt = :leaseUntil " +
+            "WHERE m.outboxMessageId IN :ids AND m.status IN :statuses AND m.nextAttemptAt <= :now")
+    int claim(
+            @Param("ids") Collection<UUID> ids,
+            @Param("statuses") Collection<OutboxMessage.MessageStatus> statuses,
+            @Param("now") LocalDateTime now,
+            @Param("claimedStatus") OutboxMessage.MessageStatus claimedStatus,
+            @Param("claimId") UUID claimId,
+            @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+
+    List<OutboxMessage> findAllByClaimId(UUID claimId);
+}
@@ -1,6 +1,8 @@
 package com.example.cliniccare.repository;
 
+import com.example.cliniccare.dto.TopServiceDTO;
 import com.example.cliniccare.entity.Payment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
@@ -8,18 +10,25 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment> {
-    @Query("SELECT SUM(p.totalPrice) FROM Payment p WHERE MONTH(p.date) = :month AND YEAR(p.date) = :year AND p.status = 1")
-    Double calculateMonthlyProfit(@Param("month") int month, @Param("year") int year);
+    @EntityGraph("Payment.dto")
+    @Override
+    Optional<Payment> findById(UUID id);
 
-    @Query("SELECT p.service.serviceId, COUNT(p) AS usageCount " +
-            "FROM Payment p " +
+    @Query("SELECT SUM(p.totalPrice) FROM Payment p WHERE p.status = 1 AND p.date >= :start AND p.date < :end")
+    Double calculateProfitBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.example.cliniccare.dto.TopServiceDTO(" +
+            "s.serviceId, s.name, s.image, s.price, COALESCE(pr.discount, 0), COUNT(p)) " +
+            "FROM Payment p JOIN p.service s LEFT JOIN s.promotion pr " +
             "WHERE p.status = 1 " +
-            "GROUP BY p.service.serviceId " +
-            "ORDER BY usageCount DESC")
-    List<Object[]> findTopServices(Pageable pageable);
+            "GROUP BY s.serviceId, s.name, s.image, s.price, pr.discount " +
+            "ORDER BY COUNT(p) DESC")
+    List<TopServiceDTO> findTopServices(Pageable pageable);
 }
@@ -1,17 +1,65 @@
 package com.example.cliniccare.repository;
 
 import com.example.cliniccare.entity.Schedule;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ScheduleRepository extends JpaRepository<Schedule, UUID>, JpaSpecificationExecutor<Schedule> {
-    List<Schedule> findAllByOrderByDateTimeDesc();
+    interface ScheduleInterval {
+        UUID getScheduleId();
+        LocalDateTime getDateTime();
+        int getDuration();
+    }
+
+    interface AvailableSchedule {
+        UUID getScheduleId();
+        UUID getDoctorProfileId();
+        UUID getServiceId();
+        LocalDateTime getDateTime();
+        int getDuration();
+    }
+
+    @EntityGraph("Schedule.dto")
+    @Override
+    Optional<Schedule> findById(UUID id);
+
     List<Schedule> findByDateTimeBetween(LocalDateTime startDateTime, LocalDateTime endDateTime);
-    List<Schedule> findAllByDoctor_User_UserIdOrderByDateTimeDesc(UUID userId);
+
+    List<ScheduleInterval> findAllByDoctor_DoctorProfileIdAndDateTimeBetweenOrderByDateTimeAsc(
+            UUID doctorProfileId, LocalDateTime startDateTime, LocalDateTime endDateTime);
+
+    Optional<ScheduleInterval> findFirstByDoctor_DoctorProfileIdAndDateTimeBeforeOrderByDateTimeDesc(
+            UUID doctorProfileId, LocalDateTime endDateTime);
+
+    Optional<ScheduleInterval> findFirstByDoctor_DoctorProfileIdAndScheduleIdNotAndDateTimeBeforeOrderByDateTimeDesc(
+            UUID doctorProfileId, UUID scheduleId, LocalDateTime endDateTime);
+
+    @Query("SELECT s.scheduleId AS scheduleId, d.doctorProfileId AS doctorProfileId, sv.serviceId AS serviceId, " +
+            "s.dateTime AS dateTime, s.duration AS duration " +
+            "FROM Schedule s JOIN s.doctor d LEFT JOIN s.service sv " +
+            "WHERE s.status = :status AND s.dateTime >= :from")
+    List<AvailableSchedule> findAllByStatusStartingFrom(
+            @Param("status") Schedule.ScheduleStatus status,
+            @Param("from") LocalDateTime from
+    );
+
+    // Compare-and-set on the status column, returns 0 when another transaction changed it first
+    @Modifying
+    @Query("UPDATE Schedule s SET s.status = :status WHERE s.scheduleId = :scheduleId AND s.status = :expectedStatus")
+    int updateStatusIfMatches(
+            @Param("scheduleId") UUID scheduleId,
+            @Param("expectedStatus") Schedule.ScheduleStatus expectedStatus,
+            @Param("status") Schedule.ScheduleStatus status
+    );
 }
@@ -0,0 +1,9 @@
+package com.example.cliniccare.repository;
+
+import com.example.cliniccare.entity.SchemaMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchemaMigrationRepository extends JpaRepository<SchemaMigration, String> {
+}
@@ -0,0 +1,11 @@
+package com.example.cliniccare.repository;
+
+import com.example.cliniccare.entity.SearchDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface SearchDocumentRepository extends JpaRepository<SearchDocument, UUID> {
+}
@@ -1,6 +1,7 @@
 package com.example.cliniccare.repository;
 
 import com.example.cliniccare.entity.Service;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -13,8 +14,15 @@ import java.util.UUID;
 
 @Repository
 public interface ServiceRepository extends JpaRepository<Service, UUID>, JpaSpecificationExecutor<Service> {
+    @EntityGraph("Service.dto")
     List<Service> findAllByDeleteAtIsNull();
+
+    @EntityGraph("Service.dto")
     List<Service> findAllByDeleteAtIsNullAndNameContaining(String name);
+
+    @EntityGraph("Service.dto")
     Optional<Service> findByServiceId(UUID id);
+
+    @EntityGraph("Service.dto")
     Optional<Service> findByServiceIdAndDeleteAtIsNull(UUID id);
 }
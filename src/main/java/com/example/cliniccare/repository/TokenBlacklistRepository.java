@@ -3,6 +3,11 @@ package com.example.cliniccare.repository;
 import com.example.cliniccare.entity.TokenBlacklist;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist, Long> {
-    TokenBlacklist findByToken(String token);
+    boolean existsByTokenHash(String tokenHash);
+    List<TokenBlacklist> findAllByExpireAtIsNullOrExpireAtAfter(LocalDateTime now);
+    List<TokenBlacklist> findAllByInvalidatedAtAfter(LocalDateTime since);
 }
@@ -2,59 +2,51 @@ package com.example.cliniccare.repository;
 
 import com.example.cliniccare.entity.User;
 import jakarta.persistence.criteria.Predicate;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
-    default Page<User> findByDeleteAtIsNullAndSearchParamsAndRoleParams(
-            List<String> searchParams,
-            List<String> roleParams,
-            String search,
-            UUID role,
-            Pageable pageable
-    ) {
-        return findAll(
-                (root, query, criteriaBuilder) -> {
-                    Predicate predicate = criteriaBuilder.isNull(root.get("deleteAt"));
-
-                    if (!searchParams.isEmpty()) {
-                        Predicate searchPredicate = criteriaBuilder.or(
-                                searchParams.stream()
-                                        .map(param ->
-                                                criteriaBuilder.like(root.get(param), "%" + search + "%"))
-                                        .toArray(Predicate[]::new)
-                        );
-                        predicate = criteriaBuilder.and(predicate, searchPredicate);
-                    }
-
-                    if (!roleParams.isEmpty()) {
-                        predicate = criteriaBuilder.and(
-                                predicate,
-                                criteriaBuilder.equal(root.get("role").get("roleId"), role));
-                    }
-
-                    return predicate;
-                },
-                pageable
-        );
+    static Specification<User> deleteAtIsNullAndRoleParams(List<String> roleParams, UUID role) {
+        return (root, query, criteriaBuilder) -> {
+            Predicate predicate = criteriaBuilder.isNull(root.get("deleteAt"));
+
+            if (!roleParams.isEmpty()) {
+                predicate = criteriaBuilder.and(
+                        predicate,
+                        criteriaBuilder.equal(root.get("role").get("roleId"), role));
+            }
+
+            return predicate;
+        };
     }
-    List<User> findAllByDeleteAtIsNullAndRole_Name(String roleName);
+
+    @EntityGraph("User.dto")
     Optional<User> findByUserIdAndDeleteAtIsNull(UUID userId);
+
+    // Everything UserInfoDetails reads, the principal is built outside any transaction
+    @EntityGraph("User.auth")
     Optional<User> findByEmailAndDeleteAtIsNull(String email);
+
     Boolean existsByEmailAndDeleteAtIsNull(String email);
+
+    @EntityGraph("User.dto")
     List<User> findByRoleNameAndDeleteAtIsNull(String role);
 
-    @Query("SELECT COUNT(u) FROM User u WHERE u.role.name = 'User' AND u.deleteAt IS NULL AND u.doctorProfile IS NULL " +
-            "AND MONTH(u.createAt) = :month AND YEAR(u.createAt) = :year")
-    Long countUsersWithUserRoleOnlyByMonth(@Param("month") int month, @Param("year") int year);
+    @Query("SELECT COUNT(u) FROM User u WHERE u.role.name = 'User' AND u.deleteAt IS NULL AND u.doctorProfiles IS EMPTY " +
+            "AND u.createAt >= :start AND u.createAt < :end")
+    Long countUsersWithUserRoleOnlyBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT MIN(u.createAt) FROM User u")
+    LocalDateTime findEarliestCreateAt();
 }
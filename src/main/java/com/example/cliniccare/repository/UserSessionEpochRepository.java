@@ -0,0 +1,23 @@
+package com.example.cliniccare.repository;
+
+import com.example.cliniccare.entity.UserSessionEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserSessionEpochRepository extends JpaRepository<UserSessionEpoch, UUID> {
+    List<UserSessionEpoch> findAllByInvalidatedAtAfter(LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserSessionEpoch e WHERE e.invalidatedAt < :cutoff")
+    int deleteAllInvalidatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
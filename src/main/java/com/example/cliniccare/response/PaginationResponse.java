@@ -1,5 +1,6 @@
 package com.example.cliniccare.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -19,24 +20,64 @@ public class PaginationResponse<T> extends ApiResponse<T> {
             long totalElements
     ) {
         super(success, message, data);
-        this.meta = new Meta(page, size, take, totalPages, totalElements);
+        this.meta = new Meta(page, size, take, totalPages, totalElements, null, null);
+    }
+
+    // Offset page without a count
+    public PaginationResponse(
+            boolean success,
+            String message,
+            T data,
+            int page,
+            int size,
+            int take,
+            boolean hasNext
+    ) {
+        super(success, message, data);
+        this.meta = new Meta(page, size, take, null, null, hasNext, null);
+    }
+
+    // Keyset page: no page number or totals, nextCursor is null on the last page
+    public PaginationResponse(
+            boolean success,
+            String message,
+            T data,
+            int size,
+            int take,
+            String nextCursor
+    ) {
+        super(success, message, data);
+        this.meta = new Meta(null, size, take, null, null, null, nextCursor);
     }
 
     @Setter
     @Getter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private static class Meta {
-        private int page;
+        private Integer page;
         private int size;
         private int take;
-        private int totalPages;
-        private long totalElements;
+        private Integer totalPages;
+        private Long totalElements;
+        private Boolean hasNext;
+        private String nextCursor;
 
-        public Meta(int page, int size, int take, int totalPages, long totalElements) {
+        public Meta(
+                Integer page,
+                int size,
+                int take,
+                Integer totalPages,
+                Long totalElements,
+                Boolean hasNext,
+                String nextCursor
+        ) {
             this.page = page;
             this.size = size;
             this.take = take;
             this.totalPages = totalPages;
             this.totalElements = totalElements;
+            this.hasNext = hasNext;
+            this.nextCursor = nextCursor;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,475 @@
+package com.example.cliniccare.seed;
+
+import com.example.cliniccare.entity.Payment;
+import com.example.cliniccare.entity.Promotion;
+import com.example.cliniccare.entity.Role;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.repository.RoleRepository;
+import com.example.cliniccare.repository.UserRepository;
+import com.example.cliniccare.service.AppointmentViewService;
+import com.example.cliniccare.service.AvailabilityIndex;
+import com.example.cliniccare.service.DailyStatsService;
+import com.example.cliniccare.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Generates a production-sized dataset with plain multi-row INSERTs. Every value is derived from
+// (seed, table, row), so the same settings always produce the same rows whatever the thread count.
+@Component
+@Profile("loadtest")
+@Order(2)
+public class LoadTestSeeder implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestSeeder.class);
+
+    private static final String EMAIL_DOMAIN = "@loadtest.cliniccare.com";
+    private static final String[] SPECIALTIES = {
+            "Cardiology", "Dermatology", "Pediatrics", "Neurology", "Orthopedics",
+            "Ophthalmology", "Dentistry", "General Medicine", "Gynecology", "Psychiatry"
+    };
+    private static final String[] CANCEL_REASONS = {
+            "Busy", "Feeling better", "Booked another time", "Travelling"
+    };
+
+    // Half-hour slots from 08:00 to 18:00
+    private static final int SLOTS_PER_DAY = 20;
+    private static final int SLOT_MINUTES = 30;
+
+    private enum Table {
+        USERS("users"),
+        DOCTOR_PROFILES("doctor_profiles"),
+        PROMOTIONS("promotions"),
+        SERVICES("services"),
+        SCHEDULES("schedules"),
+        APPOINTMENTS("appointments"),
+        PAYMENTS("payments"),
+        MEDICAL_RECORDS("medical_records"),
+        FEEDBACKS("feedbacks"),
+        NOTIFICATIONS("notifications");
+
+        private final String tableName;
+
+        Table(String tableName) {
+            this.tableName = tableName;
+        }
+    }
+
+    private interface RowWriter {
+        void write(long row, List<Object> params);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final AppointmentViewService appointmentViewService;
+    private final SearchService searchService;
+    private final DailyStatsService dailyStatsService;
+    private final AvailabilityIndex availabilityIndex;
+
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    @Value("${loadtest.start-date:2024-01-01}")
+    private String startDateValue;
+
+    @Value("${loadtest.days:365}")
+    private int days;
+
+    @Value("${loadtest.patients:100000}")
+    private long patients;
+
+    @Value("${loadtest.doctors:500}")
+    private long doctors;
+
+    @Value("${loadtest.promotions:50}")
+    private long promotions;
+
+    @Value("${loadtest.services:200}")
+    private long services;
+
+    @Value("${loadtest.schedules:1200000}")
+    private long schedules;
+
+    @Value("${loadtest.appointments:1000000}")
+    private long appointments;
+
+    @Value("${loadtest.payments:1000000}")
+    private long payments;
+
+    @Value("${loadtest.medical-records:500000}")
+    private long medicalRecords;
+
+    @Value("${loadtest.feedbacks:200000}")
+    private long feedbacks;
+
+    @Value("${loadtest.notifications:1000000}")
+    private long notifications;
+
+    @Value("${loadtest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${loadtest.threads:4}")
+    private int threads;
+
+    private LocalDate startDate;
+    private boolean binaryUuids;
+
+    @Autowired
+    public LoadTestSeeder(
+            JdbcTemplate jdbcTemplate,
+            RoleRepository roleRepository,
+            UserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            AppointmentViewService appointmentViewService,
+            SearchService searchService,
+            DailyStatsService dailyStatsService,
+            AvailabilityIndex availabilityIndex
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.appointmentViewService = appointmentViewService;
+        this.searchService = searchService;
+        this.dailyStatsService = dailyStatsService;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (userRepository.findByEmailAndDeleteAtIsNull(patientEmail(0)).isPresent()) {
+            logger.info("Load-test data is already seeded, skipping");
+            return;
+        }
+        if (patients <= 0 || doctors <= 0 || services <= 0) {
+            throw new IllegalStateException("loadtest.patients, loadtest.doctors and loadtest.services must be positive");
+        }
+        if (appointments > schedules) {
+            logger.warn("Only {} schedules for {} appointments, seeding {} appointments", schedules, appointments, schedules);
+            appointments = schedules;
+        }
+        startDate = LocalDate.parse(startDateValue);
+
+        // Hibernate stores UUIDs as binary(16) on MySQL
+        binaryUuids = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql"));
+
+        UUID patientRoleId = getRoleId("User");
+        UUID doctorRoleId = getRoleId("Doctor");
+
+        // One hash for every seeded account, BCrypt per row would dominate the run
+        String password = passwordEncoder.encode("loadtest");
+
+        long started = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            insert(executor, Table.USERS, "user_id, role_id, name, email, password, phone, create_at",
+                    patients + doctors, (row, params) -> {
+                        boolean doctor = row >= patients;
+                        long index = doctor ? row - patients : row;
+
+                        params.add(uuid(userId(row)));
+                        params.add(uuid(doctor ? doctorRoleId : patientRoleId));
+                        params.add((doctor ? "Doctor " : "Patient ") + index);
+                        params.add(doctor ? doctorEmail(index) : patientEmail(index));
+                        params.add(password);
+                        params.add(phone(row));
+                        params.add(dateTime(Table.USERS, row, 0));
+                    });
+
+            insert(executor, Table.DOCTOR_PROFILES, "doctor_profile_id, user_id, specialty, create_at",
+                    doctors, (row, params) -> {
+                        params.add(uuid(id(Table.DOCTOR_PROFILES, row)));
+                        params.add(uuid(userId(patients + row)));
+                        params.add(SPECIALTIES[pick(Table.DOCTOR_PROFILES, row, 0, SPECIALTIES.length)]);
+                        params.add(dateTime(Table.USERS, patients + row, 0));
+                    });
+
+            insert(executor, Table.PROMOTIONS, "promotion_id, description, discount, status, create_at, expired_at",
+                    promotions, (row, params) -> {
+                        LocalDateTime createAt = dateTime(Table.PROMOTIONS, row, 0);
+
+                        params.add(uuid(id(Table.PROMOTIONS, row)));
+                        params.add("Promotion " + row);
+                        params.add(5 + 5 * pick(Table.PROMOTIONS, row, 1, 10));
+                        params.add(Promotion.PromotionStatus.ACTIVE.ordinal());
+                        params.add(createAt);
+                        params.add(createAt.toLocalDate().plusDays(30 + pick(Table.PROMOTIONS, row, 2, 150)));
+                    });
+
+            insert(executor, Table.SERVICES, "service_id, name, description, price, status, create_at, promotion_id",
+                    services, (row, params) -> {
+                        boolean promoted = promotions > 0 && pick(Table.SERVICES, row, 1, 10) < 3;
+
+                        params.add(uuid(id(Table.SERVICES, row)));
+                        params.add("Service " + row);
+                        params.add("Load-test service " + row);
+                        params.add(price(row));
+                        params.add(Service.ServiceStatus.AVAILABLE.ordinal());
+                        params.add(dateTime(Table.SERVICES, row, 0));
+                        params.add(nullableUuid(promoted ? id(Table.PROMOTIONS, pick(Table.SERVICES, row, 2, promotions)) : null));
+                    });
+
+            // Schedule n backs appointment n, so its status follows that appointment's outcome
+            insert(executor, Table.SCHEDULES, "schedule_id, service_id, doctor_profile_id, date_time, duration, status",
+                    schedules, (row, params) -> {
+                        params.add(uuid(id(Table.SCHEDULES, row)));
+                        params.add(uuid(id(Table.SERVICES, pick(Table.SCHEDULES, row, 0, services))));
+                        params.add(uuid(id(Table.DOCTOR_PROFILES, row % doctors)));
+                        params.add(scheduleDateTime(row));
+                        params.add(SLOT_MINUTES);
+                        params.add(scheduleStatus(row).ordinal());
+                    });
+
+            insert(executor, Table.APPOINTMENTS,
+                    "appointment_id, patient_name, patient_phone, schedule_id, active_schedule_id, patient_id, date, cancel_by, cancel_at, cancel_reason",
+                    appointments, (row, params) -> {
+                        long patient = pick(Table.APPOINTMENTS, row, 0, patients);
+                        UUID scheduleId = id(Table.SCHEDULES, row);
+                        LocalDateTime scheduleDateTime = scheduleDateTime(row);
+                        LocalDateTime date = scheduleDateTime.minusMinutes(60 + pick(Table.APPOINTMENTS, row, 1, 14 * 24 * 60));
+                        boolean cancelled = isCancelled(row);
+
+                        params.add(uuid(id(Table.APPOINTMENTS, row)));
+                        params.add("Patient " + patient);
+                        params.add(phone(patient));
+                        params.add(uuid(scheduleId));
+                        params.add(nullableUuid(cancelled ? null : scheduleId));
+                        params.add(uuid(userId(patient)));
+                        params.add(date);
+                        params.add(nullableUuid(cancelled ? userId(patient) : null));
+                        params.add(new SqlParameterValue(Types.TIMESTAMP,
+                                cancelled ? date.plusMinutes(pick(Table.APPOINTMENTS, row, 2, 60 * 24)) : null));
+                        params.add(new SqlParameterValue(Types.VARCHAR,
+                                cancelled ? CANCEL_REASONS[pick(Table.APPOINTMENTS, row, 3, CANCEL_REASONS.length)] : null));
+                    });
+
+            insert(executor, Table.PAYMENTS, "payment_id, patient_id, service_id, date, total_price, status, method",
+                    payments, (row, params) -> {
+                        long service = pick(Table.PAYMENTS, row, 1, services);
+                        int status = pick(Table.PAYMENTS, row, 2, 100);
+
+                        params.add(uuid(id(Table.PAYMENTS, row)));
+                        params.add(uuid(userId(pick(Table.PAYMENTS, row, 0, patients))));
+                        params.add(uuid(id(Table.SERVICES, service)));
+                        params.add(dateTime(Table.PAYMENTS, row, 3));
+                        params.add(price(service));
+                        params.add((status < 85 ? Payment.PaymentStatus.PAID
+                                : status < 95 ? Payment.PaymentStatus.PENDING
+                                : Payment.PaymentStatus.CANCELLED).ordinal());
+                        params.add((pick(Table.PAYMENTS, row, 4, 2) == 0
+                                ? Payment.PaymentMethod.CASH
+                                : Payment.PaymentMethod.BANKING).ordinal());
+                    });
+
+            insert(executor, Table.MEDICAL_RECORDS,
+                    "medical_record_id, patient_id, doctor_profile_id, service_id, description, create_at",
+                    medicalRecords, (row, params) -> {
+                        params.add(uuid(id(Table.MEDICAL_RECORDS, row)));
+                        params.add(uuid(userId(pick(Table.MEDICAL_RECORDS, row, 0, patients))));
+                        params.add(uuid(id(Table.DOCTOR_PROFILES, pick(Table.MEDICAL_RECORDS, row, 1, doctors))));
+                        params.add(uuid(id(Table.SERVICES, pick(Table.MEDICAL_RECORDS, row, 2, services))));
+                        params.add("Medical record " + row);
+                        params.add(dateTime(Table.MEDICAL_RECORDS, row, 3));
+                    });
+
+            // A feedback is about either a doctor or a service, never both
+            insert(executor, Table.FEEDBACKS, "feedback_id, doctor_profile_id, service_id, patient_id, feedback, create_at",
+                    feedbacks, (row, params) -> {
+                        boolean aboutDoctor = pick(Table.FEEDBACKS, row, 1, 2) == 0;
+
+                        params.add(uuid(id(Table.FEEDBACKS, row)));
+                        params.add(nullableUuid(aboutDoctor
+                                ? id(Table.DOCTOR_PROFILES, pick(Table.FEEDBACKS, row, 2, doctors)) : null));
+                        params.add(nullableUuid(aboutDoctor
+                                ? null : id(Table.SERVICES, pick(Table.FEEDBACKS, row, 2, services))));
+                        params.add(uuid(userId(pick(Table.FEEDBACKS, row, 0, patients))));
+                        params.add("Feedback " + row);
+                        params.add(dateTime(Table.FEEDBACKS, row, 3));
+                    });
+
+            insert(executor, Table.NOTIFICATIONS, "notification_id, user_id, message, is_read, create_at",
+                    notifications, (row, params) -> {
+                        params.add(uuid(id(Table.NOTIFICATIONS, row)));
+                        params.add(uuid(userId(pick(Table.NOTIFICATIONS, row, 0, patients))));
+                        params.add("Notification " + row);
+                        params.add(pick(Table.NOTIFICATIONS, row, 1, 10) < 7);
+                        params.add(dateTime(Table.NOTIFICATIONS, row, 2));
+                    });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("Seeded load-test data in {} ms", System.currentTimeMillis() - started);
+
+        // The rows bypassed Hibernate, so the derived tables are rebuilt from them
+        appointmentViewService.rebuild();
+        searchService.rebuild();
+        availabilityIndex.reload();
+
+        LocalDate lastScheduleDate = schedules > 0 ? scheduleDateTime(schedules - 1).toLocalDate() : startDate;
+        LocalDate endDate = startDate.plusDays(days);
+        dailyStatsService.rebuild(startDate, lastScheduleDate.isAfter(endDate) ? lastScheduleDate : endDate);
+    }
+
+    // Splits the rows into multi-row INSERT statements of batch-size rows, run in parallel
+    private void insert(ExecutorService executor, Table table, String columns, long rows, RowWriter writer) {
+        if (rows <= 0) {
+            return;
+        }
+
+        int columnCount = columns.split(",").length;
+        String placeholders = "(" + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        String prefix = "INSERT INTO " + table.tableName + " (" + columns + ") VALUES ";
+        long started = System.currentTimeMillis();
+
+        List<Future<?>> chunks = new ArrayList<>();
+        for (long from = 0; from < rows; from += batchSize) {
+            long chunkFrom = from;
+            int chunkRows = (int) Math.min(batchSize, rows - from);
+
+            chunks.add(executor.submit(() -> {
+                List<Object> params = new ArrayList<>(chunkRows * columnCount);
+                for (long row = chunkFrom; row < chunkFrom + chunkRows; row++) {
+                    writer.write(row, params);
+                }
+
+                jdbcTemplate.update(prefix + String.join(", ", Collections.nCopies(chunkRows, placeholders)), params.toArray());
+            }));
+        }
+
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while seeding " + table.tableName, e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new IllegalStateException("Failed to seed " + table.tableName + ": " + e.getCause().getMessage(), e.getCause());
+        }
+
+        logger.info("Seeded {} {} in {} ms", rows, table.tableName, System.currentTimeMillis() - started);
+    }
+
+    private UUID getRoleId(String name) {
+        return roleRepository.findByNameIgnoreCase(name)
+                .map(Role::getRoleId)
+                .orElseThrow(() -> new IllegalStateException("Role " + name + " is missing, DataSeeder must run first"));
+    }
+
+    private static String patientEmail(long index) {
+        return "patient" + index + EMAIL_DOMAIN;
+    }
+
+    private static String doctorEmail(long index) {
+        return "doctor" + index + EMAIL_DOMAIN;
+    }
+
+    // Patients come first, doctor accounts follow them
+    private UUID userId(long row) {
+        return id(Table.USERS, row);
+    }
+
+    // Row numbers in the low bits keep each table's keys ascending, so InnoDB appends instead of splitting pages
+    private UUID id(Table table, long row) {
+        return new UUID(hash(table, -1, 0), row);
+    }
+
+    private Object uuid(UUID id) {
+        if (!binaryUuids) {
+            return id;
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private Object nullableUuid(UUID id) {
+        return id != null ? uuid(id) : new SqlParameterValue(binaryUuids ? Types.BINARY : Types.OTHER, null);
+    }
+
+    private String phone(long row) {
+        return String.format("09%08d", pick(Table.USERS, row, 1, 100_000_000));
+    }
+
+    private double price(long service) {
+        return (10 + pick(Table.SERVICES, service, 3, 190)) * 10000.0;
+    }
+
+    private LocalDateTime dateTime(Table table, long row, int salt) {
+        return startDate.atStartOfDay().plusSeconds(pick(table, row, salt, days * 86400L));
+    }
+
+    // Doctors take turns, each one filling their slots day by day
+    private LocalDateTime scheduleDateTime(long row) {
+        long slot = row / doctors;
+        return startDate.atTime(8, 0)
+                .plusDays(slot / SLOTS_PER_DAY)
+                .plusMinutes((slot % SLOTS_PER_DAY) * SLOT_MINUTES);
+    }
+
+    private boolean isCancelled(long appointment) {
+        return pick(Table.APPOINTMENTS, appointment, 4, 100) < 10;
+    }
+
+    private Schedule.ScheduleStatus scheduleStatus(long row) {
+        if (row >= appointments) {
+            return pick(Table.SCHEDULES, row, 1, 10) == 0
+                    ? Schedule.ScheduleStatus.UNAVAILABLE
+                    : Schedule.ScheduleStatus.AVAILABLE;
+        }
+        // A cancellation frees the slot again, like AppointmentService.cancelAppointment
+        if (isCancelled(row)) {
+            return Schedule.ScheduleStatus.AVAILABLE;
+        }
+        return pick(Table.APPOINTMENTS, row, 5, 100) < 75
+                ? Schedule.ScheduleStatus.COMPLETED
+                : Schedule.ScheduleStatus.BOOKED;
+    }
+
+    private int pick(Table table, long row, int salt, int bound) {
+        return (int) pick(table, row, salt, (long) bound);
+    }
+
+    private long pick(Table table, long row, int salt, long bound) {
+        return Math.floorMod(hash(table, row, salt), bound);
+    }
+
+    // SplitMix64 finalizer over (seed, table, row, salt)
+    private long hash(Table table, long row, int salt) {
+        long z = seed
+                + (table.ordinal() + 1) * 0x9E3779B97F4A7C15L
+                + row * 0xBF58476D1CE4E5B9L
+                + salt * 0x94D049BB133111EBL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -3,61 +3,100 @@ package com.example.cliniccare.service;
 import com.example.cliniccare.dto.AppointmentDTO;
 import com.example.cliniccare.dto.PaginationDTO;
 import com.example.cliniccare.exception.BadRequestException;
+import com.example.cliniccare.exception.ConflictException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.entity.*;
 import com.example.cliniccare.repository.*;
 import com.example.cliniccare.response.PaginationResponse;
 import com.example.cliniccare.utils.DateQueryParser;
+import com.example.cliniccare.utils.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class AppointmentService {
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final List<ExportWriter.Column<AppointmentDTO>> EXPORT_COLUMNS = List.of(
+            new ExportWriter.Column<>("appointmentId", AppointmentDTO::getAppointmentId),
+            new ExportWriter.Column<>("patientName", AppointmentDTO::getPatientName),
+            new ExportWriter.Column<>("patientPhone", AppointmentDTO::getPatientPhone),
+            new ExportWriter.Column<>("scheduleId", AppointmentDTO::getScheduleId),
+            new ExportWriter.Column<>("completed", AppointmentDTO::isCompleted),
+            new ExportWriter.Column<>("patientId", AppointmentDTO::getPatientId),
+            new ExportWriter.Column<>("date", AppointmentDTO::getDate),
+            new ExportWriter.Column<>("cancelBy", AppointmentDTO::getCancelBy),
+            new ExportWriter.Column<>("cancelAt", AppointmentDTO::getCancelAt),
+            new ExportWriter.Column<>("cancelReason", AppointmentDTO::getCancelReason)
+    );
+
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentViewRepository appointmentViewRepository;
     private final ScheduleRepository scheduleRepository;
     private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
     private final DoctorProfileRepository doctorProfileRepository;
     private final PaginationService paginationService;
-    private final EmailService emailService;
+    private final PaginationCountCache paginationCountCache;
+    private final SearchService searchService;
+    private final OutboxService outboxService;
+    private final EmailTemplateService emailTemplateService;
+    private final DailyStatsService dailyStatsService;
+    private final AppointmentViewService appointmentViewService;
+    private final ObjectMapper objectMapper;
+    private final CatalogCache catalogCache;
+    private final AvailabilityIndex availabilityIndex;
 
     @Autowired
     public AppointmentService(
             AppointmentRepository appointmentRepository,
+            AppointmentViewRepository appointmentViewRepository,
             ScheduleRepository scheduleRepository,
             UserRepository userRepository,
-            NotificationRepository notificationRepository,
             DoctorProfileRepository doctorProfileRepository,
             PaginationService paginationService,
-            EmailService emailService
+            PaginationCountCache paginationCountCache,
+            SearchService searchService,
+            OutboxService outboxService,
+            EmailTemplateService emailTemplateService,
+            DailyStatsService dailyStatsService,
+            AppointmentViewService appointmentViewService,
+            ObjectMapper objectMapper,
+            CatalogCache catalogCache,
+            AvailabilityIndex availabilityIndex
     ) {
         this.appointmentRepository = appointmentRepository;
+        this.appointmentViewRepository = appointmentViewRepository;
         this.scheduleRepository = scheduleRepository;
         this.userRepository = userRepository;
-        this.notificationRepository = notificationRepository;
         this.doctorProfileRepository = doctorProfileRepository;
         this.paginationService = paginationService;
-        this.emailService = emailService;
+        this.paginationCountCache = paginationCountCache;
+        this.searchService = searchService;
+        this.outboxService = outboxService;
+        this.emailTemplateService = emailTemplateService;
+        this.dailyStatsService = dailyStatsService;
+        this.appointmentViewService = appointmentViewService;
+        this.objectMapper = objectMapper;
+        this.catalogCache = catalogCache;
+        this.availabilityIndex = availabilityIndex;
     }
 
     private void createNotification(String message, User user) {
-        Notification notification = new Notification();
-        notification.setMessage(message);
-        notification.setUser(user);
-        notificationRepository.save(notification);
+        outboxService.enqueueNotification(user, message);
     }
 
     private User determineNotificationRecipient(UUID userId, Appointment appointment, Schedule schedule) {
@@ -78,10 +117,16 @@ public class AppointmentService {
         }
     }
 
-    public List<AppointmentDTO> getAllAppointments() {
-        return appointmentRepository.findAll().stream()
-                .map(AppointmentDTO::new)
-                .collect(Collectors.toList());
+    // Served from the appointment_view read model like the list, so no joins per row
+    public ListStreamService.Source<AppointmentView, AppointmentDTO> getAllAppointments() {
+        return new ListStreamService.Source<>(
+                appointmentViewRepository,
+                null,
+                Sort.Order.desc("date"),
+                "appointmentId",
+                AppointmentDTO::new,
+                List.of(AppointmentView.class, Appointment.class, Schedule.class)
+        );
     }
 
     public PaginationResponse<List<AppointmentDTO>> getAppointments(
@@ -93,22 +138,35 @@ public class AppointmentService {
             UUID userId
     ) {
         Pageable pageable = paginationService.getPageable(paginationDTO);
+        Specification<AppointmentView> spec = getAppointmentSpecification(search, date, status, patientId, userId);
+
+        return paginationService.getPage(
+                appointmentViewRepository,
+                spec,
+                pageable,
+                paginationDTO,
+                "appointmentId",
+                AppointmentDTO::new,
+                "Get appointments successfully"
+        );
+    }
 
-        Specification<Appointment> spec = Specification.where(null);
+    // Filters shared by the list and the export, both served from the appointment_view read model
+    public Specification<AppointmentView> getAppointmentSpecification(
+            String search,
+            String date,
+            String status,
+            UUID patientId,
+            UUID userId
+    ) {
+        Specification<AppointmentView> spec = Specification.where(null);
 
         if (search != null && !search.trim().isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.or(
-                            cb.like(root.get("patientName"), "%" + search + "%"),
-                            cb.like(root.get("patientPhone"), "%" + search + "%"),
-                            cb.like(root.get("cancelReason"), "%" + search + "%"),
-                            cb.like(root.get("schedule").get("service").get("name"), "%" + search + "%")
-                    )
-            );
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.APPOINTMENT, "appointmentId", search));
         }
         if (date != null && !date.trim().isEmpty()) {
-            DateQueryParser<Appointment> dateParser = new DateQueryParser<>(date, "date");
-            Specification<Appointment> dateSpec = dateParser.createDateSpecification();
+            DateQueryParser<AppointmentView> dateParser = new DateQueryParser<>(date, "date");
+            Specification<AppointmentView> dateSpec = dateParser.createDateSpecification();
             spec = spec.and(dateSpec);
         }
         if (status != null && !status.trim().isEmpty()) {
@@ -118,53 +176,47 @@ public class AppointmentService {
                 throw new BadRequestException("Invalid status (only 'Active', 'Cancelled', or 'Completed' allowed)");
             }
 
-            spec = switch (status.toLowerCase()) {
-                case "active" -> spec.and((root, query, cb) -> cb.and(
-                        cb.isNull(root.get("cancelBy")),
-                        cb.notEqual(root.get("schedule").get("status"), Schedule.ScheduleStatus.COMPLETED)
-                ));
-                case "cancelled" -> spec.and((root, query, cb) -> cb.and(
-                        cb.isNotNull(root.get("cancelBy")),
-                        cb.notEqual(root.get("schedule").get("status"), Schedule.ScheduleStatus.COMPLETED)
-                ));
-                case "completed" -> spec.and((root, query, cb)
-                        -> cb.equal(root.get("schedule").get("status"), Schedule.ScheduleStatus.COMPLETED));
-                default -> spec;
-            };
+            AppointmentView.Status viewStatus = AppointmentView.Status.valueOf(status.toUpperCase());
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), viewStatus));
         }
         if (patientId != null) {
             User patient = userRepository.findByUserIdAndDeleteAtIsNull(patientId)
                     .orElseThrow(() -> new NotFoundException("Patient not found"));
 
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("patient").get("userId"), patient.getUserId()));
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("patientId"), patient.getUserId()));
         }
         if (userId != null) {
             DoctorProfile doctor = doctorProfileRepository.findByUser_UserIdAndDeleteAtIsNull(userId)
                     .orElseThrow(() -> new NotFoundException("Doctor not found"));
 
-            spec = spec.and((root, query, cb)
-                    -> cb.equal(root.get("schedule").get("doctor").get("doctorProfileId"), doctor.getDoctorProfileId()));
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("doctorId"), doctor.getDoctorProfileId()));
         }
 
-        Page<Appointment> appointments = appointmentRepository.findAll(spec, pageable);
-
-        int totalPages = paginationService.getTotalPages(appointments.getTotalElements(), paginationDTO.size);
-        long totalElements = appointments.getTotalElements();
-        int take = appointments.getNumberOfElements();
-
-        return new PaginationResponse<>(
-                true,
-                "Get appointments successfully",
-                appointments.map(AppointmentDTO::new).getContent(),
-                paginationDTO.page,
-                paginationDTO.size,
-                take,
-                totalPages,
-                totalElements
+        return spec;
+    }
+
+    public void exportAppointments(
+            Specification<AppointmentView> spec,
+            ExportWriter.Format format,
+            ExportWriter.Target target
+    ) throws IOException {
+        ExportWriter<AppointmentDTO> exportWriter = new ExportWriter<>(format, EXPORT_COLUMNS, objectMapper, target);
+
+        paginationService.forEachRow(
+                appointmentViewRepository,
+                spec,
+                Sort.Order.desc("date"),
+                "appointmentId",
+                EXPORT_CHUNK_SIZE,
+                Long.MAX_VALUE,
+                AppointmentDTO::new,
+                chunk -> chunk.forEach(exportWriter::write)
         );
+
+        exportWriter.finish();
     }
 
+    @Transactional(readOnly = true)
     public AppointmentDTO getAppointmentById(UUID appointmentId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new NotFoundException("Appointment not found"));
@@ -172,6 +224,7 @@ public class AppointmentService {
         return new AppointmentDTO(appointment);
     }
 
+    @Transactional
     public AppointmentDTO createAppointment(AppointmentDTO appointmentDTO) {
         User patient = userRepository.findByUserIdAndDeleteAtIsNull(appointmentDTO.getPatientId())
                 .orElseThrow(() -> new NotFoundException("Patient not found"));
@@ -183,21 +236,45 @@ public class AppointmentService {
             throw new BadRequestException("Schedule is unavailable");
         }
         if (schedule.getStatus() == Schedule.ScheduleStatus.BOOKED) {
-            throw new BadRequestException("Schedule is already booked");
+            throw new ConflictException("Schedule is already booked");
         }
         if (schedule.getDateTime().isBefore(LocalDateTime.now())) {
             throw new BadRequestException("Schedule is already passed");
         }
 
+        // Only one of the concurrent requests that read the same status can flip it
+        int updated;
+        try {
+            updated = scheduleRepository.updateStatusIfMatches(
+                    schedule.getScheduleId(),
+                    schedule.getStatus(),
+                    Schedule.ScheduleStatus.BOOKED
+            );
+        } catch (ConcurrencyFailureException e) {
+            updated = 0;
+        }
+        if (updated == 0) {
+            throw new ConflictException("Schedule is already booked");
+        }
         schedule.setStatus(Schedule.ScheduleStatus.BOOKED);
-        scheduleRepository.save(schedule);
+        paginationCountCache.invalidateAfterCommit(Schedule.class);
+        catalogCache.invalidate(CatalogCache.Region.SCHEDULES);
+        availabilityIndex.update(schedule);
 
         Appointment appointment = new Appointment();
         appointment.setPatientName(appointmentDTO.getPatientName());
         appointment.setPatientPhone(appointmentDTO.getPatientPhone());
         appointment.setSchedule(schedule);
+        appointment.setActiveScheduleId(schedule.getScheduleId());
         appointment.setPatient(patient);
-        appointmentRepository.save(appointment);
+
+        try {
+            appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Schedule is already booked");
+        }
+        appointmentViewService.save(appointment);
+        dailyStatsService.recordAppointment(appointment.getDate());
 
         createNotification(
                 "Schedule at " + schedule.getDateTime().toLocalTime() + " on " +
@@ -211,27 +288,38 @@ public class AppointmentService {
     }
 
     private void sendAppointmentEmail(Appointment appointment) {
-        try {
-            ClassPathResource resource = new ClassPathResource("templates/AppointmentTemplate.html");
-            String template = new String(Files.readAllBytes(Paths.get(resource.getURI())));
-
-            String emailContent = template
-                    .replace("{appointmentId}", appointment.getAppointmentId().toString())
-                    .replace("{patientName}", appointment.getPatientName())
-                    .replace("{patientPhone}", appointment.getPatientPhone())
-                    .replace("{date}", appointment.getSchedule().getDateTime().toString())
-                    .replace("{serviceName}", appointment.getSchedule().getService().getName());
-
-            emailService.sendHTMlEmail(
-                    appointment.getPatient().getEmail(),
-                    "Appointment Confirmation",
-                    emailContent
-            );
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to load email template", e);
-        }
+        String emailContent = emailTemplateService.render(EmailTemplateService.Template.APPOINTMENT, Map.of(
+                "appointmentId", appointment.getAppointmentId(),
+                "patientName", appointment.getPatientName(),
+                "patientPhone", appointment.getPatientPhone(),
+                "date", appointment.getSchedule().getDateTime(),
+                "serviceName", appointment.getSchedule().getService().getName()
+        ));
+
+        outboxService.enqueueEmail(
+                appointment.getPatient().getEmail(),
+                "Appointment Confirmation",
+                emailContent
+        );
+    }
+
+    private void sendCancellationEmail(Appointment appointment) {
+        String emailContent = emailTemplateService.render(EmailTemplateService.Template.CANCELLATION, Map.of(
+                "appointmentId", appointment.getAppointmentId(),
+                "patientName", appointment.getPatientName(),
+                "date", appointment.getSchedule().getDateTime(),
+                "serviceName", appointment.getSchedule().getService().getName(),
+                "cancelReason", Objects.requireNonNullElse(appointment.getCancelReason(), "")
+        ));
+
+        outboxService.enqueueEmail(
+                appointment.getPatient().getEmail(),
+                "Appointment Cancellation",
+                emailContent
+        );
     }
 
+    @Transactional
     public AppointmentDTO cancelAppointment(UUID appointmentId, AppointmentDTO appointmentDTO) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new NotFoundException("Appointment not found"));
@@ -246,6 +334,7 @@ public class AppointmentService {
         appointment.setCancelBy(userCancel);
         appointment.setCancelAt(LocalDateTime.now());
         appointment.setCancelReason(appointmentDTO.getCancelReason());
+        appointment.setActiveScheduleId(null);
         appointmentRepository.save(appointment);
 
         Schedule schedule = appointment.getSchedule();
@@ -256,15 +345,21 @@ public class AppointmentService {
 
         schedule.setStatus(Schedule.ScheduleStatus.AVAILABLE);
         scheduleRepository.save(schedule);
+        catalogCache.invalidate(CatalogCache.Region.SCHEDULES);
+        availabilityIndex.update(schedule);
+        appointmentViewService.save(appointment);
+        dailyStatsService.recordCancellation(appointment.getCancelAt());
 
         User userReceiveNotification = determineNotificationRecipient(appointmentDTO.getCancelBy(), appointment, schedule);
         String message = generateCancellationMessage(appointmentDTO.getCancelBy(), appointment, schedule);
 
         createNotification(message, userReceiveNotification);
+        sendCancellationEmail(appointment);
 
         return new AppointmentDTO(appointment);
     }
 
+    @Transactional
     public AppointmentDTO completeAppointment(UUID appointmentId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new NotFoundException("Appointment not found"));
@@ -275,6 +370,9 @@ public class AppointmentService {
 
         Schedule schedule = appointment.getSchedule();
 
+        if (schedule.getStatus() == Schedule.ScheduleStatus.COMPLETED) {
+            throw new BadRequestException("Appointment is already completed");
+        }
         if (schedule.getDateTime().isAfter(LocalDateTime.now())) {
             throw new BadRequestException("Appointment is not yet due");
         }
@@ -282,7 +380,11 @@ public class AppointmentService {
         schedule.setStatus(Schedule.ScheduleStatus.COMPLETED);
 
         scheduleRepository.save(schedule);
+        catalogCache.invalidate(CatalogCache.Region.SCHEDULES);
+        availabilityIndex.update(schedule);
         appointmentRepository.save(appointment);
+        appointmentViewService.save(appointment);
+        dailyStatsService.recordCompletion(schedule.getDateTime());
 
         return new AppointmentDTO(appointment);
     }
@@ -295,6 +397,16 @@ public class AppointmentService {
             throw new BadRequestException("Invalid month. Please provide a value between 1 and 12.");
         }
 
-        return appointmentRepository.countAppointmentsByMonth(month, year);
+        return dailyStatsService.getMonthTotals(year, month).getAppointments();
+    }
+
+    public List<Long> getAppointmentCountsForYear(Integer year) {
+        if (year == null) {
+            throw new BadRequestException("Please provide year");
+        }
+
+        return dailyStatsService.getMonthlyTotals(year).stream()
+                .map(DailyStat::getAppointments)
+                .toList();
     }
 }
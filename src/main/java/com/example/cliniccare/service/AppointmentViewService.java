@@ -0,0 +1,107 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.AppointmentView;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.repository.AppointmentRepository;
+import com.example.cliniccare.repository.AppointmentViewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Keeps appointment_view in step with appointments and their schedules, always inside the
+// transaction that changed them so the list endpoint never reads a half-applied booking
+@Service
+public class AppointmentViewService {
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentViewService.class);
+
+    private final AppointmentViewRepository appointmentViewRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PaginationCountCache paginationCountCache;
+
+    @Autowired
+    public AppointmentViewService(
+            AppointmentViewRepository appointmentViewRepository,
+            AppointmentRepository appointmentRepository,
+            PaginationCountCache paginationCountCache
+    ) {
+        this.appointmentViewRepository = appointmentViewRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.paginationCountCache = paginationCountCache;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void save(Appointment appointment) {
+        AppointmentView view = appointmentViewRepository.findById(appointment.getAppointmentId())
+                .orElseGet(AppointmentView::new);
+
+        view.setAppointmentId(appointment.getAppointmentId());
+        view.setPatientName(appointment.getPatientName());
+        view.setPatientPhone(appointment.getPatientPhone());
+        view.setScheduleId(appointment.getSchedule().getScheduleId());
+        view.setPatientId(appointment.getPatient().getUserId());
+        view.setDate(appointment.getDate());
+        view.setCancelBy(appointment.getCancelBy() != null ? appointment.getCancelBy().getUserId() : null);
+        view.setCancelAt(appointment.getCancelAt());
+        view.setCancelReason(appointment.getCancelReason());
+        applySchedule(view, appointment.getSchedule());
+
+        appointmentViewRepository.save(view);
+        saveSchedule(appointment.getSchedule());
+    }
+
+    // Schedule status or doctor changed: update every appointment booked on it, cancelled ones included
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveSchedule(Schedule schedule) {
+        List<AppointmentView> views = appointmentViewRepository.findAllByScheduleId(schedule.getScheduleId());
+        views.forEach(view -> applySchedule(view, schedule));
+
+        appointmentViewRepository.saveAll(views);
+    }
+
+    @Transactional
+    public void rebuild() {
+        appointmentViewRepository.deleteAllInBatch();
+
+        int rows = appointmentViewRepository.insertAllFromAppointments(
+                Schedule.ScheduleStatus.COMPLETED.ordinal(),
+                AppointmentView.Status.ACTIVE.ordinal(),
+                AppointmentView.Status.CANCELLED.ordinal(),
+                AppointmentView.Status.COMPLETED.ordinal()
+        );
+
+        paginationCountCache.invalidateAfterCommit(AppointmentView.class);
+
+        logger.info("Rebuilt appointment view with {} rows", rows);
+    }
+
+    // First start with the read model, or a database restored without it
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (appointmentViewRepository.count() != appointmentRepository.count()) {
+            rebuild();
+        }
+    }
+
+    private void applySchedule(AppointmentView view, Schedule schedule) {
+        view.setDoctorId(schedule.getDoctor().getDoctorProfileId());
+        view.setScheduleStatus(schedule.getStatus());
+
+        // Same rules the list endpoint always used: a completed schedule wins over a cancellation
+        if (schedule.getStatus() == Schedule.ScheduleStatus.COMPLETED) {
+            view.setStatus(AppointmentView.Status.COMPLETED);
+        } else if (view.getCancelBy() != null) {
+            view.setStatus(AppointmentView.Status.CANCELLED);
+        } else {
+            view.setStatus(AppointmentView.Status.ACTIVE);
+        }
+    }
+}
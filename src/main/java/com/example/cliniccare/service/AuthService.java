@@ -22,32 +22,39 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Service
 @Lazy
 public class AuthService implements UserDetailsService {
     private final EmailService emailService;
+    private final EmailTemplateService emailTemplateService;
     private final FirebaseStorageService firebaseStorageService;
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final EmailVerificationRepository emailVerificationRepository;
+    private final DailyStatsService dailyStatsService;
 
     @Autowired
     public AuthService(
             EmailService emailService,
+            EmailTemplateService emailTemplateService,
             FirebaseStorageService firebaseStorageService,
             PasswordEncoder passwordEncoder,
             UserRepository userRepository,
             RoleRepository roleRepository,
-            EmailVerificationRepository emailVerificationRepository
+            EmailVerificationRepository emailVerificationRepository,
+            DailyStatsService dailyStatsService
     ) {
         this.userRepository = userRepository;
         this.firebaseStorageService = firebaseStorageService;
         this.passwordEncoder = passwordEncoder;
         this.roleRepository = roleRepository;
         this.emailService = emailService;
+        this.emailTemplateService = emailTemplateService;
         this.emailVerificationRepository = emailVerificationRepository;
+        this.dailyStatsService = dailyStatsService;
     }
 
     @Override
@@ -70,7 +77,10 @@ public class AuthService implements UserDetailsService {
                             .orElseThrow(() -> new RuntimeException("Default role not found"));
                     newUser.setRole(userRole);
 
-                    return userRepository.save(newUser);
+                    User savedUser = userRepository.save(newUser);
+                    dailyStatsService.recordNewPatient(savedUser.getCreateAt());
+
+                    return savedUser;
                 });
     }
 
@@ -88,7 +98,11 @@ public class AuthService implements UserDetailsService {
         emailVerificationRepository.save(emailVerification);
 
         try {
-            emailService.sendEmail(request.getEmail(), "ClinicCare Registration", "Your OTP is " + otp);
+            emailService.sendHTMlEmail(
+                    request.getEmail(),
+                    "ClinicCare Registration",
+                    emailTemplateService.render(EmailTemplateService.Template.OTP, Map.of("otp", otp))
+            );
         } catch (RuntimeException e) {
             throw new BadRequestException("Failed to send email. The email address may not exist");
         }
@@ -102,6 +116,7 @@ public class AuthService implements UserDetailsService {
         emailVerificationRepository.delete(verification);
     }
 
+    @Transactional
     public UserDTO registerUser(UserFormDTO userDTO) throws IOException {
         if (userRepository.findByEmailAndDeleteAtIsNull(userDTO.getEmail()).isPresent()) {
             throw new BadRequestException("Email already registered");
@@ -119,6 +134,9 @@ public class AuthService implements UserDetailsService {
             user.setImage(firebaseStorageService.uploadImage(userDTO.getImage()));
         }
 
-        return new UserDTO(userRepository.save(user));
+        User savedUser = userRepository.save(user);
+        dailyStatsService.recordNewPatient(savedUser.getCreateAt());
+
+        return new UserDTO(savedUser);
     }
 }
@@ -0,0 +1,304 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.repository.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Quarter-hour availability of every doctor and service, one bitmap per day, built from the AVAILABLE
+// schedules that have not started yet. ScheduleService and AppointmentService push each change after
+// commit and started schedules drop out on the next read, so reads are lookups without queries or locks.
+@Service
+public class AvailabilityIndex {
+    public static final int SLOT_MINUTES = 15;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int SLOT_SECONDS = SLOT_MINUTES * 60;
+
+    // What one available schedule adds, kept so it can be taken out again when the schedule changes
+    private record Placement(
+            UUID scheduleId,
+            UUID doctorProfileId,
+            UUID serviceId,
+            LocalDateTime start,
+            LocalDateTime end
+    ) {}
+
+    // placement is null when the schedule is no longer available
+    private record Change(UUID scheduleId, Placement placement) {}
+
+    // Available schedules covering each slot; readers only look at the bitmap, replaced whole on every change
+    private static class Day {
+        private final short[] counts = new short[SLOTS_PER_DAY];
+        private volatile String bitmap;
+    }
+
+    private static class State {
+        private final Map<UUID, ConcurrentSkipListMap<LocalDate, Day>> doctors = new ConcurrentHashMap<>();
+        private final Map<UUID, ConcurrentSkipListMap<LocalDate, Day>> services = new ConcurrentHashMap<>();
+        private final Map<UUID, Placement> placements = new HashMap<>();
+        private final TreeSet<Placement> byStart = new TreeSet<>(
+                Comparator.comparing(Placement::start).thenComparing(Placement::scheduleId));
+    }
+
+    private final ScheduleRepository scheduleRepository;
+    private final Object reloadLock = new Object();
+
+    private volatile State state;
+    // Start of the earliest indexed schedule, nothing has to drop out before then
+    private volatile LocalDateTime nextExpiry;
+    // Changes committed while a reload reads the schedules, replayed onto the new state
+    private List<Change> replay;
+
+    @Autowired
+    public AvailabilityIndex(ScheduleRepository scheduleRepository) {
+        this.scheduleRepository = scheduleRepository;
+    }
+
+    public Map<LocalDate, String> getDoctorDays(UUID doctorProfileId, LocalDate from, LocalDate to) {
+        return getDays(getState().doctors.get(doctorProfileId), from, to);
+    }
+
+    public Map<LocalDate, String> getServiceDays(UUID serviceId, LocalDate from, LocalDate to) {
+        return getDays(getState().services.get(serviceId), from, to);
+    }
+
+    public Set<UUID> getDoctorIds() {
+        return getState().doctors.keySet();
+    }
+
+    // Call inside the transaction that changed the schedule, the index follows once it commits
+    public void update(Schedule schedule) {
+        updateAll(List.of(schedule));
+    }
+
+    public void updateAll(Collection<Schedule> schedules) {
+        List<Change> changes = schedules.stream()
+                .map(schedule -> new Change(schedule.getScheduleId(), toPlacement(schedule)))
+                .toList();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(changes);
+                }
+            });
+        } else {
+            apply(changes);
+        }
+    }
+
+    // Picks up schedules written by other instances or straight to the database
+    @Scheduled(fixedDelayString = "${availability.reload-interval:600000}")
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+
+            State loaded = new State();
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                scheduleRepository.findAllByStatusStartingFrom(Schedule.ScheduleStatus.AVAILABLE, now)
+                        .forEach(schedule -> apply(loaded, new Change(schedule.getScheduleId(), new Placement(
+                                schedule.getScheduleId(),
+                                schedule.getDoctorProfileId(),
+                                schedule.getServiceId(),
+                                schedule.getDateTime(),
+                                schedule.getDateTime().plusMinutes(schedule.getDuration())
+                        )), now));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    replay = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                LocalDateTime now = LocalDateTime.now();
+                replay.forEach(change -> apply(loaded, change, now));
+                replay = null;
+                state = loaded;
+                updateNextExpiry();
+            }
+        }
+    }
+
+    private State getState() {
+        State current = state;
+        if (current == null) {
+            synchronized (reloadLock) {
+                if (state == null) {
+                    reload();
+                }
+            }
+            current = state;
+        }
+
+        LocalDateTime expiry = nextExpiry;
+        if (expiry != null && expiry.isBefore(LocalDateTime.now())) {
+            expire();
+        }
+
+        return current;
+    }
+
+    private Map<LocalDate, String> getDays(ConcurrentSkipListMap<LocalDate, Day> days, LocalDate from, LocalDate to) {
+        Map<LocalDate, String> result = new LinkedHashMap<>();
+        if (days == null) {
+            return result;
+        }
+
+        days.subMap(from, true, to, true).forEach((date, day) -> {
+            String bitmap = day.bitmap;
+            if (bitmap != null) {
+                result.put(date, bitmap);
+            }
+        });
+
+        return result;
+    }
+
+    private Placement toPlacement(Schedule schedule) {
+        if (schedule.getStatus() != Schedule.ScheduleStatus.AVAILABLE || schedule.getDoctor() == null) {
+            return null;
+        }
+
+        return new Placement(
+                schedule.getScheduleId(),
+                schedule.getDoctor().getDoctorProfileId(),
+                schedule.getService() != null ? schedule.getService().getServiceId() : null,
+                schedule.getDateTime(),
+                schedule.getDateTime().plusMinutes(schedule.getDuration())
+        );
+    }
+
+    private synchronized void apply(List<Change> changes) {
+        if (replay != null) {
+            replay.addAll(changes);
+        }
+        if (state == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        changes.forEach(change -> apply(state, change, now));
+        updateNextExpiry();
+    }
+
+    private void apply(State state, Change change, LocalDateTime now) {
+        Placement previous = state.placements.remove(change.scheduleId());
+        if (previous != null) {
+            state.byStart.remove(previous);
+            place(state, previous, -1);
+        }
+
+        // A schedule that has started can no longer be booked
+        Placement placement = change.placement();
+        if (placement != null && !placement.start().isBefore(now)) {
+            state.placements.put(placement.scheduleId(), placement);
+            state.byStart.add(placement);
+            place(state, placement, 1);
+        }
+    }
+
+    private synchronized void expire() {
+        LocalDateTime now = LocalDateTime.now();
+
+        while (!state.byStart.isEmpty() && state.byStart.first().start().isBefore(now)) {
+            Placement placement = state.byStart.pollFirst();
+            state.placements.remove(placement.scheduleId());
+            place(state, placement, -1);
+        }
+
+        updateNextExpiry();
+    }
+
+    private void updateNextExpiry() {
+        nextExpiry = state.byStart.isEmpty() ? null : state.byStart.first().start();
+    }
+
+    // Marks every slot the schedule overlaps, splitting it at midnight
+    private void place(State state, Placement placement, int delta) {
+        LocalDateTime time = placement.start();
+
+        while (time.isBefore(placement.end())) {
+            LocalDate date = time.toLocalDate();
+            LocalDateTime nextDay = date.plusDays(1).atStartOfDay();
+            boolean endsToday = placement.end().isBefore(nextDay);
+
+            int first = time.toLocalTime().toSecondOfDay() / SLOT_SECONDS;
+            int last = endsToday
+                    ? (placement.end().toLocalTime().toSecondOfDay() + SLOT_SECONDS - 1) / SLOT_SECONDS
+                    : SLOTS_PER_DAY;
+
+            count(state.doctors, placement.doctorProfileId(), date, first, last, delta);
+            if (placement.serviceId() != null) {
+                count(state.services, placement.serviceId(), date, first, last, delta);
+            }
+
+            time = nextDay;
+        }
+    }
+
+    private void count(
+            Map<UUID, ConcurrentSkipListMap<LocalDate, Day>> calendar,
+            UUID ownerId,
+            LocalDate date,
+            int first,
+            int last,
+            int delta
+    ) {
+        ConcurrentSkipListMap<LocalDate, Day> days = calendar.computeIfAbsent(ownerId, id -> new ConcurrentSkipListMap<>());
+        Day day = days.computeIfAbsent(date, d -> new Day());
+
+        for (int slot = first; slot < last; slot++) {
+            day.counts[slot] += (short) delta;
+        }
+
+        day.bitmap = toBitmap(day.counts);
+        if (day.bitmap == null) {
+            days.remove(date);
+            if (days.isEmpty()) {
+                calendar.remove(ownerId);
+            }
+        }
+    }
+
+    private static String toBitmap(short[] counts) {
+        char[] digits = new char[SLOTS_PER_DAY / 4];
+        boolean any = false;
+
+        for (int hour = 0; hour < digits.length; hour++) {
+            int digit = 0;
+            for (int quarter = 0; quarter < 4; quarter++) {
+                if (counts[hour * 4 + quarter] > 0) {
+                    digit |= 8 >> quarter;
+                }
+            }
+
+            any |= digit != 0;
+            digits[hour] = Character.forDigit(digit, 16);
+        }
+
+        return any ? new String(digits) : null;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.entity.SearchDocument;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Read-through cache of the public catalog GET responses, holding the serialized body so a hit skips
+// both the database and Jackson. Writes drop the affected regions once they commit. The ETag hashes
+// the body, so a rebuilt but unchanged response still revalidates with a 304.
+@Service
+public class CatalogCache implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    public enum Region {
+        SERVICES(SearchDocument.EntityType.SERVICE),
+        DOCTORS(SearchDocument.EntityType.DOCTOR_PROFILE),
+        SCHEDULES(SearchDocument.EntityType.SCHEDULE),
+        FEEDBACKS(SearchDocument.EntityType.FEEDBACK);
+
+        private final SearchDocument.EntityType searchType;
+
+        Region(SearchDocument.EntityType searchType) {
+            this.searchType = searchType;
+        }
+    }
+
+    public record Entry(byte[] body, String etag, long lastModified) {}
+
+    private static class RegionState {
+        private final Cache<String, Entry> entries;
+        private final AtomicLong generation = new AtomicLong();
+        private final LongAdder localHits = new LongAdder();
+        private final LongAdder tierHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private RegionState(Cache<String, Entry> entries) {
+            this.entries = entries;
+        }
+
+        private double getHitRatio() {
+            long hits = localHits.sum() + tierHits.sum();
+            long requests = hits + misses.sum();
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final CatalogCacheTier tier;
+    private final Map<Region, RegionState> regions = new EnumMap<>(Region.class);
+
+    // Also bounds how long a write made on another instance takes to show up here
+    @Value("${catalog-cache.ttl:60000}")
+    private long ttl;
+
+    @Value("${catalog-cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Autowired
+    public CatalogCache(ObjectMapper objectMapper, ObjectProvider<CatalogCacheTier> tier) {
+        this.objectMapper = objectMapper;
+        this.tier = tier.getIfAvailable();
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Region region : Region.values()) {
+            regions.put(region, new RegionState(Caffeine.newBuilder()
+                    .maximumWeight(maxBytes)
+                    .weigher((String key, Entry entry) -> key.length() + entry.body().length)
+                    .expireAfterWrite(Duration.ofMillis(ttl))
+                    .build()));
+        }
+    }
+
+    // The loader builds the response body on a miss; exceptions it throws reach the caller uncached.
+    // Spring MVC answers If-None-Match / If-Modified-Since requests that still match with a 304.
+    public ResponseEntity<?> respond(Region region, HttpServletRequest request, Supplier<?> loader)
+            throws JsonProcessingException {
+        Entry entry = get(region, getKey(request), loader);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .eTag(entry.etag())
+                .lastModified(entry.lastModified())
+                .body(entry.body());
+    }
+
+    // Drops the regions once the current transaction commits, or right away outside of one
+    public void invalidate(Region... regions) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(regions);
+                }
+            });
+        } else {
+            evict(regions);
+        }
+    }
+
+    // Search results only change once SearchService has re-indexed the documents, after the write itself
+    public void invalidateSearches(Collection<SearchDocument.EntityType> types) {
+        evict(Arrays.stream(Region.values())
+                .filter(region -> types.contains(region.searchType))
+                .toArray(Region[]::new));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        regions.forEach((region, state) -> {
+            Tags tags = Tags.of("region", region.name().toLowerCase());
+
+            FunctionCounter.builder("catalog.cache.requests", state.localHits, LongAdder::sum)
+                    .tags(tags).tag("result", "local-hit").register(registry);
+            FunctionCounter.builder("catalog.cache.requests", state.tierHits, LongAdder::sum)
+                    .tags(tags).tag("result", "tier-hit").register(registry);
+            FunctionCounter.builder("catalog.cache.requests", state.misses, LongAdder::sum)
+                    .tags(tags).tag("result", "miss").register(registry);
+
+            Gauge.builder("catalog.cache.hit.ratio", state, RegionState::getHitRatio)
+                    .tags(tags).register(registry);
+            Gauge.builder("catalog.cache.size", state.entries, Cache::estimatedSize)
+                    .tags(tags).register(registry);
+        });
+    }
+
+    private Entry get(Region region, String key, Supplier<?> loader) throws JsonProcessingException {
+        RegionState state = regions.get(region);
+
+        Entry entry = state.entries.getIfPresent(key);
+        if (entry != null) {
+            state.localHits.increment();
+            return entry;
+        }
+
+        long generation = state.generation.get();
+
+        entry = getFromTier(region, key);
+        if (entry != null) {
+            state.tierHits.increment();
+            cache(state, key, entry, generation);
+            return entry;
+        }
+
+        state.misses.increment();
+        byte[] body = objectMapper.writeValueAsBytes(loader.get());
+        entry = new Entry(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", System.currentTimeMillis());
+
+        if (cache(state, key, entry, generation)) {
+            putToTier(region, key, entry);
+        }
+
+        return entry;
+    }
+
+    private boolean cache(RegionState state, String key, Entry entry, long generation) {
+        state.entries.put(key, entry);
+
+        // A write committed while loading, the entry may already be stale
+        if (state.generation.get() != generation) {
+            state.entries.asMap().remove(key, entry);
+            return false;
+        }
+
+        return true;
+    }
+
+    private void evict(Region[] regions) {
+        for (Region region : regions) {
+            RegionState state = this.regions.get(region);
+            state.generation.incrementAndGet();
+            state.entries.invalidateAll();
+
+            if (tier != null) {
+                try {
+                    tier.invalidate(region);
+                } catch (Exception e) {
+                    logger.error("Failed to invalidate {} in the catalog cache tier: {}", region, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    // The shared tier is best effort, the database is always there to fall back on
+    private Entry getFromTier(Region region, String key) {
+        if (tier == null) {
+            return null;
+        }
+
+        try {
+            return tier.get(region, key);
+        } catch (Exception e) {
+            logger.warn("Failed to read {} from the catalog cache tier: {}", region, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putToTier(Region region, String key, Entry entry) {
+        if (tier == null) {
+            return;
+        }
+
+        try {
+            tier.put(region, key, entry, Duration.ofMillis(ttl));
+        } catch (Exception e) {
+            logger.warn("Failed to write {} to the catalog cache tier: {}", region, e.getMessage());
+        }
+    }
+
+    // Path plus the sorted, encoded parameters, so reordered query strings share an entry
+    private String getKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI()).append('?');
+
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                key.append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                        .append('=')
+                        .append(URLEncoder.encode(value, StandardCharsets.UTF_8))
+                        .append('&');
+            }
+        });
+
+        return key.toString();
+    }
+}
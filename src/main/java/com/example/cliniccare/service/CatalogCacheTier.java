@@ -0,0 +1,14 @@
+package com.example.cliniccare.service;
+
+import java.time.Duration;
+
+// Optional shared tier behind the in-process catalog cache (Redis, Memcached, ...), consulted on a local
+// miss. Declare a bean of this type to enable it. Entries are plain bytes so they can be stored as-is,
+// and must expire after the given ttl since other instances only invalidate their own local tier.
+public interface CatalogCacheTier {
+    CatalogCache.Entry get(CatalogCache.Region region, String key);
+
+    void put(CatalogCache.Region region, String key, CatalogCache.Entry entry, Duration ttl);
+
+    void invalidate(CatalogCache.Region region);
+}
@@ -0,0 +1,197 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.entity.DailyStat;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.exception.BadRequestException;
+import com.example.cliniccare.repository.AppointmentRepository;
+import com.example.cliniccare.repository.DailyStatRepository;
+import com.example.cliniccare.repository.PaymentRepository;
+import com.example.cliniccare.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Counters in daily_stats are updated in the same transaction as the change they describe,
+// the reconciliation job rebuilds days from the source tables to repair any drift, one transaction per day
+@Service
+public class DailyStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(DailyStatsService.class);
+
+    private final DailyStatRepository dailyStatRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PaymentRepository paymentRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stats.reconcile-days:7}")
+    private int reconcileDays;
+
+    // Longest range one reconcile request may rebuild, the request holds its connection until the last day
+    @Value("${stats.reconcile-max-days:366}")
+    private int reconcileMaxDays;
+
+    @Autowired
+    public DailyStatsService(
+            DailyStatRepository dailyStatRepository,
+            AppointmentRepository appointmentRepository,
+            PaymentRepository paymentRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.dailyStatRepository = dailyStatRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.paymentRepository = paymentRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public void recordAppointment(LocalDateTime date) {
+        dailyStatRepository.increment(date.toLocalDate(), 1, 0, 0, 0, 0);
+    }
+
+    @Transactional
+    public void recordCancellation(LocalDateTime cancelAt) {
+        dailyStatRepository.increment(cancelAt.toLocalDate(), 0, 1, 0, 0, 0);
+    }
+
+    // Completions are attributed to the day of the schedule
+    @Transactional
+    public void recordCompletion(LocalDateTime scheduleDateTime) {
+        dailyStatRepository.increment(scheduleDateTime.toLocalDate(), 0, 0, 1, 0, 0);
+    }
+
+    // Revenue is attributed to the day the payment was created
+    @Transactional
+    public void recordRevenue(LocalDateTime paymentDate, double amount) {
+        dailyStatRepository.increment(paymentDate.toLocalDate(), 0, 0, 0, amount, 0);
+    }
+
+    @Transactional
+    public void recordNewPatient(LocalDateTime createAt) {
+        dailyStatRepository.increment(createAt.toLocalDate(), 0, 0, 0, 0, 1);
+    }
+
+    @Transactional
+    public void recordDeletedPatient(LocalDateTime createAt) {
+        dailyStatRepository.increment(createAt.toLocalDate(), 0, 0, 0, 0, -1);
+    }
+
+    public DailyStat getMonthTotals(int year, int month) {
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        List<DailyStat> days = dailyStatRepository
+                .findAllByDateBetweenOrderByDateAsc(startDate, startDate.plusMonths(1).minusDays(1));
+
+        DailyStat total = new DailyStat();
+        total.setDate(startDate);
+        days.forEach(day -> add(total, day));
+
+        return total;
+    }
+
+    // Twelve rows, one per month, dated on the first day of the month
+    public List<DailyStat> getMonthlyTotals(int year) {
+        List<DailyStat> months = new ArrayList<>(12);
+        for (int month = 1; month <= 12; month++) {
+            DailyStat total = new DailyStat();
+            total.setDate(LocalDate.of(year, month, 1));
+            months.add(total);
+        }
+
+        dailyStatRepository
+                .findAllByDateBetweenOrderByDateAsc(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))
+                .forEach(day -> add(months.get(day.getDate().getMonthValue() - 1), day));
+
+        return months;
+    }
+
+    private void add(DailyStat total, DailyStat day) {
+        total.setAppointments(total.getAppointments() + day.getAppointments());
+        total.setCancellations(total.getCancellations() + day.getCancellations());
+        total.setCompletions(total.getCompletions() + day.getCompletions());
+        total.setRevenue(total.getRevenue() + day.getRevenue());
+        total.setNewPatients(total.getNewPatients() + day.getNewPatients());
+    }
+
+    // The zero increment creates the day's row if needed and locks it until commit, so a change to the day
+    // either commits before the counts are read or waits and is added on top of the rebuilt row
+    @Transactional
+    public DailyStat rebuildDay(LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+
+        dailyStatRepository.increment(date, 0, 0, 0, 0, 0);
+
+        Double revenue = paymentRepository.calculateProfitBetween(start, end);
+        Long newPatients = userRepository.countUsersWithUserRoleOnlyBetween(start, end);
+
+        DailyStat stat = new DailyStat();
+        stat.setDate(date);
+        stat.setAppointments(appointmentRepository.countAppointmentsBetween(start, end));
+        stat.setCancellations(appointmentRepository.countByCancelAtGreaterThanEqualAndCancelAtLessThan(start, end));
+        stat.setCompletions(appointmentRepository
+                .countCompletedAppointmentsBetween(Schedule.ScheduleStatus.COMPLETED, start, end));
+        stat.setRevenue(revenue != null ? revenue : 0);
+        stat.setNewPatients(newPatients != null ? newPatients : 0);
+
+        return dailyStatRepository.save(stat);
+    }
+
+    // Each day commits on its own, so a long range never holds a day's lock for longer than that day takes
+    public List<DailyStat> rebuild(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new BadRequestException("Start date must not be after end date");
+        }
+
+        List<DailyStat> result = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            LocalDate day = date;
+            result.add(transactionTemplate.execute(status -> rebuildDay(day)));
+        }
+
+        return result;
+    }
+
+    // On-demand rebuild for the API, bounded unlike the internal backfill
+    public List<DailyStat> reconcile(LocalDate startDate, LocalDate endDate) {
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= reconcileMaxDays) {
+            throw new BadRequestException("The date range cannot be longer than " + reconcileMaxDays + " days");
+        }
+
+        return rebuild(startDate, endDate);
+    }
+
+    @Scheduled(cron = "${stats.reconcile-cron:0 30 2 * * *}")
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(reconcileDays), today);
+    }
+
+    // First start on a database without rollups: backfill from the oldest user
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (dailyStatRepository.count() > 0) {
+            return;
+        }
+
+        LocalDateTime earliest = userRepository.findEarliestCreateAt();
+        if (earliest != null) {
+            logger.info("Backfilling daily statistics from {}", earliest.toLocalDate());
+            rebuild(earliest.toLocalDate(), LocalDate.now());
+        }
+    }
+}
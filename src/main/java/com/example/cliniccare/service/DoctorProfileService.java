@@ -8,14 +8,15 @@ import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.entity.DoctorProfile;
 import com.example.cliniccare.entity.User;
+import com.example.cliniccare.entity.SearchDocument;
 import com.example.cliniccare.repository.DoctorProfileRepository;
 import com.example.cliniccare.repository.RoleRepository;
 import com.example.cliniccare.repository.UserRepository;
 import com.example.cliniccare.response.PaginationResponse;
 import jakarta.persistence.criteria.Join;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -32,7 +33,10 @@ public class DoctorProfileService {
     private final RoleRepository roleRepository;
     private final FirebaseStorageService firebaseStorageService;
     private final PaginationService paginationService;
+    private final SearchService searchService;
     private final PasswordEncoder passwordEncoder;
+    private final UserSessionEpochService userSessionEpochService;
+    private final CatalogCache catalogCache;
 
     @Autowired
     public DoctorProfileService(
@@ -41,26 +45,31 @@ public class DoctorProfileService {
             RoleRepository roleRepository,
             FirebaseStorageService firebaseStorageService,
             PaginationService paginationService,
-            PasswordEncoder passwordEncoder
+            SearchService searchService,
+            PasswordEncoder passwordEncoder,
+            UserSessionEpochService userSessionEpochService,
+            CatalogCache catalogCache
     ) {
         this.doctorProfileRepository = doctorProfileRepository;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.firebaseStorageService = firebaseStorageService;
         this.paginationService = paginationService;
+        this.searchService = searchService;
         this.passwordEncoder = passwordEncoder;
+        this.userSessionEpochService = userSessionEpochService;
+        this.catalogCache = catalogCache;
     }
 
-    public List<DoctorProfileDTO> getAllDoctorProfiles() {
-        List<DoctorProfile> doctorProfiles = doctorProfileRepository.findAllByDeleteAtIsNull();
-
-        return doctorProfiles
-                .stream()
-                .map(doctorProfile -> new DoctorProfileDTO(doctorProfile, userRepository
-                        .findByUserIdAndDeleteAtIsNull(doctorProfile.getUser().getUserId())
-                        .orElseThrow(() -> new NotFoundException("User not found"))
-                ))
-                .toList();
+    public ListStreamService.Source<DoctorProfile, DoctorProfileDTO> getAllDoctorProfiles() {
+        return new ListStreamService.Source<>(
+                doctorProfileRepository,
+                (root, query, cb) -> cb.isNull(root.get("deleteAt")),
+                Sort.Order.desc("createAt"),
+                "doctorProfileId",
+                doctorProfile -> new DoctorProfileDTO(doctorProfile, doctorProfile.getUser()),
+                List.of(DoctorProfile.class, User.class)
+        );
     }
 
     public PaginationResponse<List<DoctorProfileDTO>> getDoctorProfiles(
@@ -75,13 +84,7 @@ public class DoctorProfileService {
         );
 
         if (search != null && !search.trim().isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.or(
-                            cb.like(root.get("user").get("name"), "%" + search + "%"),
-                            cb.like(root.get("user").get("email"), "%" + search + "%"),
-                            cb.like(root.get("specialty"), "%" + search + "%")
-                    )
-            );
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.DOCTOR_PROFILE, "doctorProfileId", search));
         }
         if (serviceId != null) {
             spec = spec.and((root, query, cb) -> {
@@ -90,29 +93,14 @@ public class DoctorProfileService {
             });
         }
 
-        Page<DoctorProfile> doctorProfiles = doctorProfileRepository.findAll(spec, pageable);
-
-        int totalPages = doctorProfiles.getTotalPages();
-        long totalElements = doctorProfiles.getTotalElements();
-        int take = doctorProfiles.getNumberOfElements();
-
-        List<DoctorProfileDTO> doctorProfileDTOs = doctorProfiles
-                .stream()
-                .map(doctorProfile -> new DoctorProfileDTO(doctorProfile, userRepository
-                        .findByUserIdAndDeleteAtIsNull(doctorProfile.getUser().getUserId())
-                        .orElseThrow(() -> new NotFoundException("User not found"))
-                ))
-                .toList();
-
-        return new PaginationResponse<>(
-                true,
-                "Get doctors successfully",
-                doctorProfileDTOs,
-                paginationDTO.page,
-                paginationDTO.size,
-                take,
-                totalPages,
-                totalElements
+        return paginationService.getPage(
+                doctorProfileRepository,
+                spec,
+                pageable,
+                paginationDTO,
+                "doctorProfileId",
+                doctorProfile -> new DoctorProfileDTO(doctorProfile, doctorProfile.getUser()),
+                "Get doctors successfully"
         );
     }
 
@@ -151,6 +139,7 @@ public class DoctorProfileService {
         doctorProfile.setUser(savedUser);
 
         DoctorProfile savedDoctorProfile = doctorProfileRepository.save(doctorProfile);
+        catalogCache.invalidate(CatalogCache.Region.DOCTORS);
 
         return new DoctorProfileDTO(savedDoctorProfile, savedUser);
     }
@@ -180,6 +169,7 @@ public class DoctorProfileService {
         User updatedUser = userRepository.save(user);
 
         DoctorProfile updatedDoctorProfile = doctorProfileRepository.save(doctorProfile);
+        invalidateDoctorDetails();
 
         return new DoctorProfileDTO(updatedDoctorProfile, updatedUser);
     }
@@ -197,5 +187,17 @@ public class DoctorProfileService {
         user.setEmail(null);
         user.setDeleteAt(LocalDateTime.now());
         userRepository.save(user);
+
+        userSessionEpochService.invalidate(user.getUserId());
+        invalidateDoctorDetails();
+    }
+
+    // Schedules and feedbacks show the doctor's name, image and specialty too
+    private void invalidateDoctorDetails() {
+        catalogCache.invalidate(
+                CatalogCache.Region.DOCTORS,
+                CatalogCache.Region.SCHEDULES,
+                CatalogCache.Region.FEEDBACKS
+        );
     }
 }
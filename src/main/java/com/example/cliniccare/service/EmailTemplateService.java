@@ -0,0 +1,47 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.utils.EmailTemplate;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+public class EmailTemplateService {
+    public enum Template {
+        APPOINTMENT("templates/AppointmentTemplate.html"),
+        CANCELLATION("templates/CancellationTemplate.html"),
+        OTP("templates/OtpTemplate.html"),
+        PAYMENT_RECEIPT("templates/PaymentReceiptTemplate.html");
+
+        private final String path;
+
+        Template(String path) {
+            this.path = path;
+        }
+    }
+
+    private final Map<Template, EmailTemplate> templates = new EnumMap<>(Template.class);
+
+    @PostConstruct
+    public void init() {
+        for (Template template : Template.values()) {
+            // Read as a stream, the resource is not a file when running from the packaged jar
+            try (InputStream inputStream = new ClassPathResource(template.path).getInputStream()) {
+                String source = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+                templates.put(template, EmailTemplate.compile(source));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to load email template " + template.path, e);
+            }
+        }
+    }
+
+    public String render(Template template, Map<String, ?> values) {
+        return templates.get(template).render(values);
+    }
+}
@@ -8,18 +8,16 @@ import com.example.cliniccare.entity.*;
 import com.example.cliniccare.repository.*;
 import com.example.cliniccare.response.PaginationResponse;
 import com.example.cliniccare.utils.DateQueryParser;
-import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
 public class FeedbackService {
@@ -28,6 +26,8 @@ public class FeedbackService {
     private final DoctorProfileRepository doctorProfileRepository;
     private final UserRepository userRepository;
     private final PaginationService paginationService;
+    private final SearchService searchService;
+    private final CatalogCache catalogCache;
 
     @Autowired
     public FeedbackService(
@@ -35,20 +35,34 @@ public class FeedbackService {
             ServiceRepository serviceRepository,
             DoctorProfileRepository doctorProfileRepository,
             UserRepository userRepository,
-            PaginationService paginationService
+            PaginationService paginationService,
+            SearchService searchService,
+            CatalogCache catalogCache
     ) {
         this.feedbackRepository = feedbackRepository;
         this.serviceRepository = serviceRepository;
         this.doctorProfileRepository = doctorProfileRepository;
         this.userRepository = userRepository;
         this.paginationService = paginationService;
+        this.searchService = searchService;
+        this.catalogCache = catalogCache;
     }
 
     @Transactional(readOnly = true)
-    public List<FeedbackDTO> getAllFeedbacks() {
-        return feedbackRepository.findAll().stream()
-                .map(FeedbackDTO::new)
-                .collect(Collectors.toList());
+    public ListStreamService.Source<Feedback, FeedbackDTO> getAllFeedbacks() {
+        return new ListStreamService.Source<>(
+                feedbackRepository,
+                (root, query, cb) -> {
+                    root.fetch("patient", JoinType.LEFT);
+                    root.fetch("doctor", JoinType.LEFT).fetch("user", JoinType.LEFT);
+                    root.fetch("service", JoinType.LEFT);
+                    return null;
+                },
+                Sort.Order.desc("createAt"),
+                "feedbackId",
+                FeedbackDTO::new,
+                List.of(Feedback.class, User.class, DoctorProfile.class, Service.class)
+        );
     }
 
     public PaginationResponse<List<FeedbackDTO>> getFeedbacks(
@@ -71,23 +85,7 @@ public class FeedbackService {
         });
 
         if (search != null && !search.trim().isEmpty()) {
-            String searchLower = search.toLowerCase();
-
-            spec = spec.and((root, query, cb) -> {
-                if (query != null)  query.distinct(true);
-
-                Join<Feedback, User> patientJoin = root.join("patient", JoinType.LEFT);
-                Join<Feedback, DoctorProfile> doctorJoin = root.join("doctor", JoinType.LEFT);
-                Join<DoctorProfile, User> userJoin = doctorJoin.join("user", JoinType.LEFT);
-                Join<Feedback, Service> serviceJoin = root.join("service", JoinType.LEFT);
-
-                return cb.or(
-                        cb.like(cb.lower(root.get("feedback")), "%" + searchLower + "%"),
-                        cb.like(cb.lower(patientJoin.get("name")), "%" + searchLower + "%"),
-                        cb.like(cb.lower(userJoin.get("name")), "%" + searchLower + "%"),
-                        cb.like(cb.lower(serviceJoin.get("name")), "%" + searchLower + "%")
-                );
-            });
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.FEEDBACK, "feedbackId", search));
         }
 
         if (patientId != null) {
@@ -123,21 +121,14 @@ public class FeedbackService {
             spec = spec.and(dateSpec);
         }
 
-        Page<Feedback> feedbacks = feedbackRepository.findAll(spec, pageable);
-
-        int totalPages = feedbacks.getTotalPages();
-        long totalElements = feedbacks.getTotalElements();
-        int take = feedbacks.getNumberOfElements();
-
-        return new PaginationResponse<>(
-                true,
-                "Get feedbacks successfully",
-                feedbacks.map(FeedbackDTO::new).getContent(),
-                paginationDTO.page,
-                paginationDTO.size,
-                take,
-                totalPages,
-                totalElements
+        return paginationService.getPage(
+                feedbackRepository,
+                spec,
+                pageable,
+                paginationDTO,
+                "feedbackId",
+                FeedbackDTO::new,
+                "Get feedbacks successfully"
         );
     }
 
@@ -182,7 +173,10 @@ public class FeedbackService {
         feedback.setPatient(patient);
         feedback.setFeedback(feedbackDTO.getFeedback());
 
-        return new FeedbackDTO(feedbackRepository.save(feedback));
+        Feedback savedFeedback = feedbackRepository.save(feedback);
+        catalogCache.invalidate(CatalogCache.Region.FEEDBACKS);
+
+        return new FeedbackDTO(savedFeedback);
     }
 
     public FeedbackDTO updateFeedback(UUID id, FeedbackDTO feedbackDTO) {
@@ -192,7 +186,10 @@ public class FeedbackService {
 
         feedback.setFeedback(feedbackDTO.getFeedback());
 
-        return new FeedbackDTO(feedbackRepository.save(feedback));
+        Feedback savedFeedback = feedbackRepository.save(feedback);
+        catalogCache.invalidate(CatalogCache.Region.FEEDBACKS);
+
+        return new FeedbackDTO(savedFeedback);
     }
 
     public void deleteFeedback(UUID id) {
@@ -202,6 +199,7 @@ public class FeedbackService {
 
         feedback.setDeleteAt(LocalDateTime.now());
         feedbackRepository.save(feedback);
+        catalogCache.invalidate(CatalogCache.Region.FEEDBACKS);
     }
 
     public void deleteFeedbacks(List<UUID> ids) {
@@ -215,5 +213,6 @@ public class FeedbackService {
         feedbacks.forEach(feedback -> feedback.setDeleteAt(LocalDateTime.now()));
 
         feedbackRepository.saveAll(feedbacks);
+        catalogCache.invalidate(CatalogCache.Region.FEEDBACKS);
     }
 }
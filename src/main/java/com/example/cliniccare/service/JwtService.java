@@ -1,23 +1,35 @@
 package com.example.cliniccare.service;
 
 import com.example.cliniccare.entity.UserInfoDetails;
+import com.example.cliniccare.utils.TokenHasher;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtService {
+    private static final String ROLE_CLAIM = "role";
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String DOCTOR_PROFILE_ID_CLAIM = "doctorProfileId";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -27,12 +39,37 @@ public class JwtService {
     @Value("${jwt.refreshExpiration}")
     private long jwtRefreshExpiration;
 
+    @Value("${jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    private SecretKey signKey;
+    private JwtParser jwtParser;
+
+    // SHA-256 of a verified token -> its claims, so repeated bearer tokens skip HMAC verification.
+    // No entry outlives the access token lifetime, reads do not take a shared lock
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    public void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser().verifyWith(signKey).build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfterWrite(Duration.ofMillis(jwtExpiration))
+                .build();
+    }
+
     public String generateToken(UserInfoDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getAuthorities().stream()
+        claims.put(ROLE_CLAIM, userDetails.getAuthorities().stream()
                 .findFirst()
                 .map(GrantedAuthority::getAuthority)
                 .orElse(null));
+        claims.put(USER_ID_CLAIM, userDetails.getUserId().toString());
+
+        if (userDetails.getDoctorProfileId() != null) {
+            claims.put(DOCTOR_PROFILE_ID_CLAIM, userDetails.getDoctorProfileId().toString());
+        }
 
         return createToken(claims, userDetails.getUsername(), jwtExpiration);
     }
@@ -47,33 +84,76 @@ public class JwtService {
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
-    private SecretKey getSignKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        return claimsResolver.apply(extractAllClaims(token));
+        return claimsResolver.apply(verifyToken(token));
+    }
+
+    public Date extractExpiration(String token) {
+        try {
+            return extractClaim(token, Claims::getExpiration);
+        } catch (ExpiredJwtException e) {
+            return e.getClaims().getExpiration();
+        }
+    }
+
+    public Claims verifyToken(String token) {
+        String tokenHash = TokenHasher.toHex(TokenHasher.digest(token));
+        Claims cachedClaims = verifiedClaims.getIfPresent(tokenHash);
+
+        if (cachedClaims != null) {
+            if (cachedClaims.getExpiration().after(new Date())) {
+                return cachedClaims;
+            }
+            verifiedClaims.invalidate(tokenHash);
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+        if (claimsCacheSize > 0) {
+            verifiedClaims.put(tokenHash, claims);
+        }
+
+        return claims;
+    }
+
+    public UUID extractUserId(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        return userId != null ? UUID.fromString(userId) : null;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    // Builds the principal from an access token alone; refresh tokens do not carry these claims
+    public UserInfoDetails extractUserDetails(Claims claims) {
+        UUID userId = extractUserId(claims);
+        String role = claims.get(ROLE_CLAIM, String.class);
+
+        if (userId == null || role == null) {
+            return null;
+        }
+
+        String doctorProfileId = claims.get(DOCTOR_PROFILE_ID_CLAIM, String.class);
+
+        return new UserInfoDetails(
+                userId,
+                claims.getSubject(),
+                role,
+                doctorProfileId != null ? UUID.fromString(doctorProfileId) : null
+        );
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) &&
-                !extractClaim(token, Claims::getExpiration).before(new Date()));
+        return isTokenValid(verifyToken(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) &&
+                !claims.getExpiration().before(new Date());
     }
 }
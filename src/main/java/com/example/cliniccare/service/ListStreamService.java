@@ -0,0 +1,140 @@
+package com.example.cliniccare.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Serves the /all endpoints: the usual ApiResponse body, but with data streamed as a JSON array in
+// keyset chunks, cut off after list-stream.max-rows rows ("truncated": true tells the caller)
+@Service
+public class ListStreamService {
+    private static final int CHUNK_SIZE = 500;
+
+    // Which rows to stream and the entity types the DTOs read, whose writes change the ETag
+    public record Source<T, D>(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> spec,
+            Sort.Order order,
+            String idAttribute,
+            Function<T, D> mapper,
+            List<Class<?>> entityTypes
+    ) {}
+
+    private final PaginationService paginationService;
+    private final PaginationCountCache paginationCountCache;
+    private final ObjectWriter rowWriter;
+    private final ObjectMapper objectMapper;
+    // ETags from another instance or an earlier run never match this one's generations
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${list-stream.max-rows:10000}")
+    private long maxRows;
+
+    @Value("${list-stream.etag-window:30000}")
+    private long etagWindow;
+
+    @Autowired
+    public ListStreamService(
+            PaginationService paginationService,
+            PaginationCountCache paginationCountCache,
+            ObjectMapper objectMapper
+    ) {
+        this.paginationService = paginationService;
+        this.paginationCountCache = paginationCountCache;
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void write(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            String message,
+            Source<?, ?> source
+    ) throws IOException {
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(getETag(request, source))) {
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+
+        write(response.getOutputStream(), message, source);
+    }
+
+    public <T, D> void write(OutputStream outputStream, String message, Source<T, D> source) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeBooleanField("success", true);
+        generator.writeStringField("message", message);
+        generator.writeArrayFieldStart("data");
+
+        boolean truncated = paginationService.forEachRow(
+                source.repository(),
+                source.spec(),
+                source.order(),
+                source.idAttribute(),
+                CHUNK_SIZE,
+                maxRows,
+                source.mapper(),
+                chunk -> {
+                    try {
+                        for (D row : chunk) {
+                            rowWriter.writeValue(generator, row);
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+        );
+
+        generator.writeEndArray();
+        generator.writeBooleanField("truncated", truncated);
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    // Changes with every committed write to the listed entity types on this instance, and at least
+    // once per list-stream.etag-window so writes made elsewhere show up within that window
+    private String getETag(HttpServletRequest request, Source<?, ?> source) {
+        StringBuilder key = new StringBuilder()
+                .append(instanceId)
+                .append('|').append(request.getRequestURI())
+                .append('?').append(request.getQueryString())
+                .append('|').append(maxRows)
+                .append('|').append(System.currentTimeMillis() / etagWindow);
+
+        for (Class<?> entityType : source.entityTypes()) {
+            key.append('|').append(entityType.getName())
+                    .append('=').append(paginationCountCache.getGeneration(entityType));
+        }
+
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -7,29 +7,51 @@ import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.entity.DoctorProfile;
 import com.example.cliniccare.entity.MedicalRecord;
 import com.example.cliniccare.entity.User;
+import com.example.cliniccare.entity.SearchDocument;
 import com.example.cliniccare.repository.DoctorProfileRepository;
 import com.example.cliniccare.repository.MedicalRecordRepository;
 import com.example.cliniccare.repository.ServiceRepository;
 import com.example.cliniccare.repository.UserRepository;
 import com.example.cliniccare.response.PaginationResponse;
 import com.example.cliniccare.utils.DateQueryParser;
+import com.example.cliniccare.utils.ExcelGenerator;
+import com.example.cliniccare.utils.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Service
 public class MedicalRecordService {
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final List<ExportWriter.Column<MedicalRecordDTO>> EXPORT_COLUMNS = List.of(
+            new ExportWriter.Column<>("medicalRecordId", MedicalRecordDTO::getMedicalRecordId),
+            new ExportWriter.Column<>("patientId", MedicalRecordDTO::getPatientId),
+            new ExportWriter.Column<>("patientName", MedicalRecordDTO::getPatientName),
+            new ExportWriter.Column<>("doctorProfileId", MedicalRecordDTO::getDoctorProfileId),
+            new ExportWriter.Column<>("doctorName", MedicalRecordDTO::getDoctorName),
+            new ExportWriter.Column<>("serviceId", MedicalRecordDTO::getServiceId),
+            new ExportWriter.Column<>("serviceName", MedicalRecordDTO::getServiceName),
+            new ExportWriter.Column<>("description", MedicalRecordDTO::getDescription),
+            new ExportWriter.Column<>("date", MedicalRecordDTO::getDate)
+    );
+
     private final MedicalRecordRepository medicalRecordRepository;
     private final UserRepository userRepository;
     private final DoctorProfileRepository doctorProfileRepository;
     private final ServiceRepository serviceRepository;
     private final PaginationService paginationService;
+    private final SearchService searchService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public MedicalRecordService(
@@ -37,20 +59,28 @@ public class MedicalRecordService {
             UserRepository userRepository,
             DoctorProfileRepository doctorProfileRepository,
             ServiceRepository serviceRepository,
-            PaginationService paginationService
+            PaginationService paginationService,
+            SearchService searchService,
+            ObjectMapper objectMapper
     ) {
         this.medicalRecordRepository = medicalRecordRepository;
         this.userRepository = userRepository;
         this.doctorProfileRepository = doctorProfileRepository;
         this.serviceRepository = serviceRepository;
         this.paginationService = paginationService;
+        this.searchService = searchService;
+        this.objectMapper = objectMapper;
     }
 
-    public List<MedicalRecordDTO> getAllMedicalRecords() {
-        return medicalRecordRepository.findAllByDeleteAtIsNull()
-                .stream()
-                .map(MedicalRecordDTO::new)
-                .toList();
+    public ListStreamService.Source<MedicalRecord, MedicalRecordDTO> getAllMedicalRecords() {
+        return new ListStreamService.Source<>(
+                medicalRecordRepository,
+                (root, query, cb) -> cb.isNull(root.get("deleteAt")),
+                Sort.Order.desc("createAt"),
+                "medicalRecordId",
+                MedicalRecordDTO::new,
+                List.of(MedicalRecord.class, User.class, DoctorProfile.class, com.example.cliniccare.entity.Service.class)
+        );
     }
 
     public PaginationResponse<List<MedicalRecordDTO>> getMedicalRecord(
@@ -62,18 +92,34 @@ public class MedicalRecordService {
             UUID serviceId
     ) {
         Pageable pageable = paginationService.getMedicalRecordPageable(paginationDTO);
+        Specification<MedicalRecord> spec = getMedicalRecordSpecification(search, date, patientId, doctorId, serviceId);
+
+        return paginationService.getPage(
+                medicalRecordRepository,
+                spec,
+                pageable,
+                paginationDTO,
+                "medicalRecordId",
+                MedicalRecordDTO::new,
+                "Get medical records successfully"
+        );
+    }
 
+    // Filters shared by the list and the export; unknown patient, doctor or service ids are rejected up front
+    public Specification<MedicalRecord> getMedicalRecordSpecification(
+            String search,
+            String date,
+            UUID patientId,
+            UUID doctorId,
+            UUID serviceId
+    ) {
         Specification<MedicalRecord> spec = Specification
                 .where((root, query, cb) ->
                         cb.isNull(root.get("deleteAt"))
         );
 
         if (search != null && !search.isEmpty()) {
-            spec = spec.and((root, query, cb) -> cb.or(
-                    cb.like(root.get("patient").get("name"), "%" + search + "%"),
-                    cb.like(root.get("service").get("name"), "%" + search + "%"),
-                    cb.like(root.get("doctor").get("user").get("name"), "%" + search + "%")
-            ));
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.MEDICAL_RECORD, "medicalRecordId", search));
         }
         if (date != null && !date.isEmpty()) {
             DateQueryParser<MedicalRecord> dateQueryParser = new DateQueryParser<>(date, "createAt");
@@ -101,22 +147,46 @@ public class MedicalRecordService {
                     cb.equal(root.get("service").get("serviceId"), service.getServiceId()));
         }
 
-        Page<MedicalRecord> medicalRecords = medicalRecordRepository.findAll(spec, pageable);
-
-        int totalPages = medicalRecords.getTotalPages();
-        long totalElements = medicalRecords.getTotalElements();
-        int take = medicalRecords.getNumberOfElements();
-
-        return new PaginationResponse<>(
-                true,
-                "Get medical records successfully",
-                medicalRecords.map(MedicalRecordDTO::new).toList(),
-                paginationDTO.page,
-                paginationDTO.size,
-                take,
-                totalPages,
-                totalElements
+        return spec;
+    }
+
+    // Newest first like the list; rows go to the workbook chunk by chunk and never pile up on the heap
+    public void exportMedicalRecords(Specification<MedicalRecord> spec, OutputStream outputStream) throws IOException {
+        try (ExcelGenerator excelGenerator = new ExcelGenerator()) {
+            paginationService.forEachRow(
+                    medicalRecordRepository,
+                    spec,
+                    Sort.Order.desc("createAt"),
+                    "medicalRecordId",
+                    EXPORT_CHUNK_SIZE,
+                    Long.MAX_VALUE,
+                    MedicalRecordDTO::new,
+                    chunk -> chunk.forEach(excelGenerator::writeRow)
+            );
+
+            excelGenerator.write(outputStream);
+        }
+    }
+
+    public void exportMedicalRecords(
+            Specification<MedicalRecord> spec,
+            ExportWriter.Format format,
+            ExportWriter.Target target
+    ) throws IOException {
+        ExportWriter<MedicalRecordDTO> exportWriter = new ExportWriter<>(format, EXPORT_COLUMNS, objectMapper, target);
+
+        paginationService.forEachRow(
+                medicalRecordRepository,
+                spec,
+                Sort.Order.desc("createAt"),
+                "medicalRecordId",
+                EXPORT_CHUNK_SIZE,
+                Long.MAX_VALUE,
+                MedicalRecordDTO::new,
+                chunk -> chunk.forEach(exportWriter::write)
         );
+
+        exportWriter.finish();
     }
 
     public MedicalRecordDTO getMedicalRecordById(UUID id) {
@@ -126,6 +196,7 @@ public class MedicalRecordService {
         return new MedicalRecordDTO(medicalRecord);
     }
 
+    @Transactional
     public MedicalRecordDTO createMedicalRecord(MedicalRecordDTO medicalRecordDTO) {
         User user = userRepository.findByUserIdAndDeleteAtIsNull(medicalRecordDTO.getPatientId())
                 .orElseThrow(() -> new NotFoundException("Patient not found"));
@@ -156,6 +227,7 @@ public class MedicalRecordService {
         return new MedicalRecordDTO(savedMedicalRecord);
     }
 
+    @Transactional
     public MedicalRecordDTO updateMedicalRecord(UUID id, MedicalRecordDTO medicalRecordDTO) {
         MedicalRecord medicalRecord = medicalRecordRepository
                 .findByMedicalRecordIdAndDeleteAtIsNull(id)
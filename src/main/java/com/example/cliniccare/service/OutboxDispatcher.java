@@ -0,0 +1,147 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.entity.Notification;
+import com.example.cliniccare.entity.OutboxMessage;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.exception.NotFoundException;
+import com.example.cliniccare.repository.NotificationRepository;
+import com.example.cliniccare.repository.OutboxMessageRepository;
+import com.example.cliniccare.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+public class OutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final List<OutboxMessage.MessageStatus> DUE_STATUSES = List.of(
+            OutboxMessage.MessageStatus.PENDING,
+            OutboxMessage.MessageStatus.PROCESSING
+    );
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+
+    @Value("${outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry-backoff:5000}")
+    private long retryBackoff;
+
+    // How long a claimed message stays with its dispatcher, well above the time a batch takes to send
+    @Value("${outbox.lease:300000}")
+    private long lease;
+
+    @Autowired
+    public OutboxDispatcher(
+            OutboxMessageRepository outboxMessageRepository,
+            NotificationRepository notificationRepository,
+            UserRepository userRepository,
+            EmailService emailService
+    ) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+    }
+
+    // Every instance polls the same table, so each batch is claimed before anything is sent
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:1000}")
+    public void dispatch() {
+        List<UUID> dueIds;
+
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            dueIds = outboxMessageRepository.findDueIds(DUE_STATUSES, now, PageRequest.of(0, batchSize));
+
+            if (dueIds.isEmpty()) {
+                return;
+            }
+
+            UUID claimId = UUID.randomUUID();
+            outboxMessageRepository.claim(
+                    dueIds,
+                    DUE_STATUSES,
+                    now,
+                    OutboxMessage.MessageStatus.PROCESSING,
+                    claimId,
+                    now.plus(lease, ChronoUnit.MILLIS)
+            );
+            List<OutboxMessage> messages = outboxMessageRepository.findAllByClaimId(claimId);
+
+            // SMTP calls block on I/O, one virtual thread per message keeps the batch latency to the slowest send
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                messages.forEach(message -> executor.submit(() -> deliver(message)));
+            }
+        } while (dueIds.size() == batchSize);
+    }
+
+    // Saved on its own as soon as it is sent, so a crash later in the batch cannot resend it
+    private void deliver(OutboxMessage message) {
+        try {
+            switch (message.getType()) {
+                case EMAIL -> emailService.sendHTMlEmail(
+                        message.getRecipient(),
+                        message.getSubject(),
+                        message.getPayload()
+                );
+                case NOTIFICATION -> createNotification(message);
+            }
+
+            message.setStatus(OutboxMessage.MessageStatus.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+        } catch (Exception e) {
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(e.getMessage() != null && e.getMessage().length() > 255
+                    ? e.getMessage().substring(0, 255)
+                    : e.getMessage());
+
+            if (attempts >= maxAttempts) {
+                message.setStatus(OutboxMessage.MessageStatus.FAILED);
+                logger.error("Giving up on outbox message {} after {} attempts: {}",
+                        message.getOutboxMessageId(), attempts, e.getMessage(), e);
+            } else {
+                // Exponential backoff: retryBackoff, 2x, 4x, ...
+                message.setStatus(OutboxMessage.MessageStatus.PENDING);
+                message.setNextAttemptAt(LocalDateTime.now().plus(retryBackoff << (attempts - 1), ChronoUnit.MILLIS));
+                logger.warn("Failed to deliver outbox message {} (attempt {}): {}",
+                        message.getOutboxMessageId(), attempts, e.getMessage());
+            }
+        }
+
+        try {
+            outboxMessageRepository.save(message);
+        } catch (Exception e) {
+            // The lease runs out and the message is delivered again, duplicates beat lost messages
+            logger.error("Failed to mark outbox message {}: {}", message.getOutboxMessageId(), e.getMessage(), e);
+        }
+    }
+
+    private void createNotification(OutboxMessage message) {
+        User user = userRepository.findById(UUID.fromString(message.getRecipient()))
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        Notification notification = new Notification();
+        notification.setMessage(message.getPayload());
+        notification.setUser(user);
+        notificationRepository.save(notification);
+    }
+}
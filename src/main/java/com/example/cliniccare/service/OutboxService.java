@@ -0,0 +1,39 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.entity.OutboxMessage;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OutboxService {
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    public OutboxService(OutboxMessageRepository outboxMessageRepository) {
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+    // Written in the caller's transaction, delivered by OutboxDispatcher once it commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueEmail(String to, String subject, String htmlContent) {
+        OutboxMessage message = new OutboxMessage();
+        message.setType(OutboxMessage.MessageType.EMAIL);
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setPayload(htmlContent);
+        outboxMessageRepository.save(message);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueNotification(User user, String message) {
+        OutboxMessage outboxMessage = new OutboxMessage();
+        outboxMessage.setType(OutboxMessage.MessageType.NOTIFICATION);
+        outboxMessage.setRecipient(user.getUserId().toString());
+        outboxMessage.setPayload(message);
+        outboxMessageRepository.save(outboxMessage);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.cliniccare.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Short-lived COUNT results of paginated lists, keyed per entity type by the normalized filters.
+// Any insert, update or delete of that entity type drops its counts once the transaction commits.
+@Service
+public class PaginationCountCache implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Map<Class<?>, TypeCounts> counts = new ConcurrentHashMap<>();
+
+    @Value("${pagination.count-cache-ttl:30000}")
+    private long ttl;
+
+    @Value("${pagination.count-cache-size:1000}")
+    private int maxEntries;
+
+    private record CachedCount(long count, long expiresAt) {}
+
+    private static class TypeCounts {
+        private final AtomicLong generation = new AtomicLong();
+        private final Map<String, CachedCount> entries = new ConcurrentHashMap<>();
+    }
+
+    @Autowired
+    public PaginationCountCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void init() {
+        EventListenerRegistry registry = entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    public long getCount(Class<?> type, String key, LongSupplier counter) {
+        TypeCounts typeCounts = counts.computeIfAbsent(type, t -> new TypeCounts());
+        long now = System.currentTimeMillis();
+
+        CachedCount cached = typeCounts.entries.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+
+        long generation = typeCounts.generation.get();
+        long count = counter.getAsLong();
+
+        if (typeCounts.entries.size() >= maxEntries) {
+            typeCounts.entries.clear();
+        }
+        typeCounts.entries.put(key, new CachedCount(count, now + ttl));
+
+        // A write committed while counting, the result may already be stale
+        if (typeCounts.generation.get() != generation) {
+            typeCounts.entries.remove(key);
+        }
+
+        return count;
+    }
+
+    // Bumped by every committed write to the entity type once it has been asked for, see ListStreamService
+    public long getGeneration(Class<?> type) {
+        return counts.computeIfAbsent(type, t -> new TypeCounts()).generation.get();
+    }
+
+    public void invalidate(Class<?> type) {
+        TypeCounts typeCounts = counts.get(type);
+        if (typeCounts != null) {
+            typeCounts.generation.incrementAndGet();
+            typeCounts.entries.clear();
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidateAfterCommit(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidateAfterCommit(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidateAfterCommit(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // Bulk JPQL and native writes fire no Hibernate events, their callers invalidate explicitly
+    public void invalidateAfterCommit(Class<?> type) {
+        if (!counts.containsKey(type)) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(type);
+                }
+            });
+        } else {
+            invalidate(type);
+        }
+    }
+}
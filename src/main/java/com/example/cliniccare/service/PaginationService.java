@@ -1,13 +1,79 @@
 package com.example.cliniccare.service;
 
 import com.example.cliniccare.dto.PaginationDTO;
+import com.example.cliniccare.exception.BadRequestException;
+import com.example.cliniccare.response.PaginationResponse;
+import com.example.cliniccare.utils.KeysetCursor;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PaginationService {
+    public enum CountMode {
+        EXACT, NONE, CACHED
+    }
+
+    private static final Set<String> PAGING_PARAMETERS = Set.of("page", "size", "sortBy", "order", "cursor", "count");
+    private static final String LOAD_GRAPH_HINT = "jakarta.persistence.loadgraph";
+
+    private record Chunk<D>(List<D> rows, KeysetCursor next) {}
+
+    private final PaginationCountCache paginationCountCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<Class<?>, Class<?>> domainClasses = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Optional<String>> entityGraphNames = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public PaginationService(PaginationCountCache paginationCountCache, PlatformTransactionManager transactionManager) {
+        this.paginationCountCache = paginationCountCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
     public Pageable getPageable(PaginationDTO paginationQuery) {
         Sort sort = Sort.by(Sort.Direction.fromString(paginationQuery.order), paginationQuery.sortBy);
         return PageRequest.of(paginationQuery.page - 1, paginationQuery.size, sort);
@@ -54,7 +120,326 @@ public class PaginationService {
         return PageRequest.of(paginationQuery.page - 1, paginationQuery.size, sort);
     }
 
-    public int getTotalPages(long totalElements, int size) {
-        return (int) Math.ceil((double) totalElements / size);
+    // Offset pagination by default; when a cursor is given (empty for the first page) seeks past the
+    // last row of the previous page on (sort key, id) instead, which skips both OFFSET and COUNT
+    public <T, D> PaginationResponse<List<D>> getPage(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> spec,
+            Pageable pageable,
+            PaginationDTO paginationQuery,
+            String idAttribute,
+            Function<T, D> mapper,
+            String message
+    ) {
+        if (paginationQuery.cursor != null) {
+            return getKeysetPage(repository, spec, pageable, paginationQuery, idAttribute, mapper, message);
+        }
+
+        CountMode countMode = getCountMode(paginationQuery.count);
+        Class<T> domainClass = getDomainClass(repository);
+
+        if (countMode == CountMode.EXACT) {
+            List<T> rows = findRows(domainClass, spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+            // Skips the COUNT when the page is the last one
+            Page<T> page = PageableExecutionUtils.getPage(rows, pageable, () -> repository.count(spec));
+
+            return new PaginationResponse<>(
+                    true,
+                    message,
+                    page.map(mapper).getContent(),
+                    paginationQuery.page,
+                    paginationQuery.size,
+                    page.getNumberOfElements(),
+                    page.getTotalPages(),
+                    page.getTotalElements()
+            );
+        }
+
+        List<T> rows = findRows(domainClass, spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<T> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+
+        if (countMode == CountMode.NONE) {
+            return new PaginationResponse<>(
+                    true,
+                    message,
+                    content.stream().map(mapper).toList(),
+                    paginationQuery.page,
+                    paginationQuery.size,
+                    content.size(),
+                    hasNext
+            );
+        }
+
+        // Without a request to key on, fall back to an uncached count
+        String countKey = getCountKey();
+        long totalElements = countKey == null
+                ? repository.count(spec)
+                : paginationCountCache.getCount(domainClass, countKey, () -> repository.count(spec));
+
+        return new PaginationResponse<>(
+                true,
+                message,
+                content.stream().map(mapper).toList(),
+                paginationQuery.page,
+                paginationQuery.size,
+                content.size(),
+                (int) Math.ceil((double) totalElements / paginationQuery.size),
+                totalElements
+        );
+    }
+
+    private <T, D> PaginationResponse<List<D>> getKeysetPage(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> spec,
+            Pageable pageable,
+            PaginationDTO paginationQuery,
+            String idAttribute,
+            Function<T, D> mapper,
+            String message
+    ) {
+        Sort.Order order = pageable.getSort().iterator().next();
+        Sort sort = Sort.by(order, new Sort.Order(order.getDirection(), idAttribute));
+        Specification<T> keysetSpec = spec;
+
+        if (!paginationQuery.cursor.isEmpty()) {
+            KeysetCursor cursor = KeysetCursor.decode(paginationQuery.cursor);
+
+            if (!cursor.sortKey().equals(order.getProperty()) || cursor.direction() != order.getDirection()) {
+                throw new BadRequestException("Cursor does not match sortBy and order");
+            }
+
+            keysetSpec = keysetSpec.and(afterCursor(cursor, idAttribute));
+        }
+
+        int size = paginationQuery.size;
+        List<T> rows = findRows(getDomainClass(repository), keysetSpec, sort, 0, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(content.getLast());
+            nextCursor = new KeysetCursor(
+                    order.getProperty(),
+                    order.getDirection(),
+                    KeysetCursor.format(getPropertyValue(last, idAttribute)),
+                    KeysetCursor.format(getPropertyValue(last, order.getProperty()))
+            ).encode();
+        }
+
+        return new PaginationResponse<>(
+                true,
+                message,
+                content.stream().map(mapper).toList(),
+                size,
+                content.size(),
+                nextCursor
+        );
+    }
+
+    // Visits at most limit matching rows in (sort key, id) order, one keyset chunk per statement. Each chunk
+    // is read and mapped in its own read-only transaction and handed to the action once that has ended,
+    // so memory stays flat and no connection is held while the caller writes to a slow client.
+    // Returns whether more rows matched than the limit allowed.
+    public <T, D> boolean forEachRow(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> spec,
+            Sort.Order order,
+            String idAttribute,
+            int chunkSize,
+            long limit,
+            Function<T, D> mapper,
+            Consumer<List<D>> action
+    ) {
+        Class<T> domainClass = getDomainClass(repository);
+        Sort sort = Sort.by(order, new Sort.Order(order.getDirection(), idAttribute));
+        Specification<T> chunkSpec = Specification.where(spec);
+        long visited = 0;
+
+        while (true) {
+            long remaining = limit - visited;
+            // One row past the limit tells whether anything was left out
+            int size = remaining < chunkSize ? (int) remaining + 1 : chunkSize;
+            Specification<T> currentSpec = chunkSpec;
+
+            Chunk<D> chunk = readOnlyTransaction.execute(status -> {
+                List<T> rows = findRows(domainClass, currentSpec, sort, 0, size);
+                List<D> mapped = rows.stream().map(mapper).toList();
+
+                KeysetCursor next = null;
+                if (!rows.isEmpty()) {
+                    BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(rows.getLast());
+                    next = new KeysetCursor(
+                            order.getProperty(),
+                            order.getDirection(),
+                            KeysetCursor.format(getPropertyValue(last, idAttribute)),
+                            KeysetCursor.format(getPropertyValue(last, order.getProperty()))
+                    );
+                }
+
+                // Keeps the heap flat across chunks, but never drops a calling transaction's pending changes
+                if (status.isNewTransaction()) {
+                    entityManager.clear();
+                }
+                return new Chunk<>(mapped, next);
+            });
+
+            List<D> rows = chunk.rows();
+            if (rows.size() > remaining) {
+                action.accept(rows.subList(0, (int) remaining));
+                return true;
+            }
+            if (!rows.isEmpty()) {
+                action.accept(rows);
+            }
+            if (rows.size() < size) {
+                return false;
+            }
+
+            visited += rows.size();
+            chunkSpec = Specification.where(spec).and(afterCursor(chunk.next(), idAttribute));
+        }
+    }
+
+    private CountMode getCountMode(String count) {
+        try {
+            return count != null && !count.isEmpty()
+                    ? CountMode.valueOf(count.toUpperCase())
+                    : CountMode.EXACT;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid count mode");
+        }
+    }
+
+    // List rows with the "<Entity>.dto" fetch plan when the entity declares one, so the DTO mapper
+    // reads associations already loaded by the same statement instead of one lazy load per row
+    private <T> List<T> findRows(Class<T> domainClass, Specification<T> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit);
+
+        getEntityGraphName(domainClass).ifPresent(name ->
+                typedQuery.setHint(LOAD_GRAPH_HINT, entityManager.getEntityGraph(name)));
+
+        return typedQuery.getResultList();
+    }
+
+    private Optional<String> getEntityGraphName(Class<?> domainClass) {
+        return entityGraphNames.computeIfAbsent(domainClass, type -> {
+            String name = type.getSimpleName() + ".dto";
+            return entityManager.getEntityGraphs(type).stream()
+                    .map(EntityGraph::getName)
+                    .filter(name::equals)
+                    .findFirst();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Class<T> getDomainClass(JpaSpecificationExecutor<T> repository) {
+        return (Class<T>) domainClasses.computeIfAbsent(repository.getClass(), repositoryClass -> {
+            for (Class<?> repositoryInterface : ClassUtils.getAllInterfacesForClassAsSet(repositoryClass)) {
+                Class<?> domainClass = ResolvableType.forClass(repositoryInterface)
+                        .as(JpaSpecificationExecutor.class)
+                        .resolveGeneric(0);
+
+                if (domainClass != null) {
+                    return domainClass;
+                }
+            }
+            throw new IllegalStateException("Cannot resolve domain class of " + repositoryClass.getName());
+        });
+    }
+
+    // The list endpoint plus its filter parameters, trimmed, without blanks and in a stable order
+    private String getCountKey() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        Map<String, String> filters = new TreeMap<>();
+
+        request.getParameterMap().forEach((name, values) -> {
+            if (PAGING_PARAMETERS.contains(name)) {
+                return;
+            }
+
+            String value = Arrays.stream(values)
+                    .map(String::trim)
+                    .filter(v -> !v.isEmpty())
+                    .sorted()
+                    .collect(Collectors.joining(","));
+            if (!value.isEmpty()) {
+                filters.put(name, value);
+            }
+        });
+
+        return request.getRequestURI() + "?" + filters;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> Specification<T> afterCursor(KeysetCursor cursor, String idAttribute) {
+        return (root, query, cb) -> {
+            Path key = getPath(root, cursor.sortKey());
+            Path id = getPath(root, idAttribute);
+            Comparable lastId = KeysetCursor.parse(cursor.id(), id.getJavaType());
+            boolean ascending = cursor.direction().isAscending();
+
+            Predicate afterId = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+
+            // MySQL sorts NULL keys first in ascending order and last in descending order
+            if (cursor.value() == null) {
+                Predicate sameKey = cb.and(cb.isNull(key), afterId);
+                return ascending ? cb.or(sameKey, cb.isNotNull(key)) : sameKey;
+            }
+
+            Comparable lastValue = KeysetCursor.parse(cursor.value(), key.getJavaType());
+            Predicate afterKey = ascending ? cb.greaterThan(key, lastValue) : cb.lessThan(key, lastValue);
+            Predicate keyset = cb.or(afterKey, cb.and(cb.equal(key, lastValue), afterId));
+
+            return ascending ? keyset : cb.or(keyset, cb.isNull(key));
+        };
+    }
+
+    // Walks nested sort keys through LEFT joins like QueryUtils.toOrders, reusing a join it already has,
+    // so rows whose association is null keep their NULL key instead of being dropped by an inner join
+    private Path<?> getPath(From<?, ?> root, String property) {
+        String[] parts = property.split("\\.");
+        From<?, ?> from = root;
+
+        for (int i = 0; i < parts.length - 1; i++) {
+            from = getOrCreateJoin(from, parts[i]);
+        }
+
+        return from.get(parts[parts.length - 1]);
+    }
+
+    private From<?, ?> getOrCreateJoin(From<?, ?> from, String attribute) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute)) {
+                return join;
+            }
+        }
+
+        return from.join(attribute, JoinType.LEFT);
+    }
+
+    private Object getPropertyValue(BeanWrapper wrapper, String property) {
+        try {
+            return wrapper.getPropertyValue(property);
+        } catch (NullValueInNestedPathException e) {
+            return null;
+        }
     }
 }
@@ -4,24 +4,29 @@ import com.example.cliniccare.dto.PaginationDTO;
 import com.example.cliniccare.dto.PaymentDTO;
 import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
+import com.example.cliniccare.entity.DailyStat;
 import com.example.cliniccare.entity.Payment;
 import com.example.cliniccare.entity.Service;
 import com.example.cliniccare.entity.User;
+import com.example.cliniccare.entity.SearchDocument;
 import com.example.cliniccare.repository.PaymentRepository;
 import com.example.cliniccare.repository.ServiceRepository;
 import com.example.cliniccare.repository.UserRepository;
 import com.example.cliniccare.response.PaginationResponse;
 import com.example.cliniccare.utils.DateQueryParser;
+import com.example.cliniccare.utils.ExportWriter;
 import com.example.cliniccare.utils.NumberQueryParser;
 import com.example.cliniccare.utils.VNPayUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -30,6 +35,19 @@ import java.util.*;
 
 @org.springframework.stereotype.Service
 public class PaymentService {
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final List<ExportWriter.Column<PaymentDTO>> EXPORT_COLUMNS = List.of(
+            new ExportWriter.Column<>("paymentId", PaymentDTO::getPaymentId),
+            new ExportWriter.Column<>("patientId", PaymentDTO::getPatientId),
+            new ExportWriter.Column<>("patientName", PaymentDTO::getPatientName),
+            new ExportWriter.Column<>("serviceId", PaymentDTO::getServiceId),
+            new ExportWriter.Column<>("serviceName", PaymentDTO::getServiceName),
+            new ExportWriter.Column<>("date", PaymentDTO::getDate),
+            new ExportWriter.Column<>("totalPrice", PaymentDTO::getTotalPrice),
+            new ExportWriter.Column<>("status", PaymentDTO::getStatus),
+            new ExportWriter.Column<>("method", PaymentDTO::getMethod)
+    );
+
     @Value("${vnp_TmnCode}")
     private String vnp_TmnCode;
 
@@ -46,18 +64,36 @@ public class PaymentService {
     private final UserRepository patientRepository;
     private final ServiceRepository serviceRepository;
     private final PaginationService paginationService;
+    private final SearchService searchService;
+    private final OutboxService outboxService;
+    private final EmailTemplateService emailTemplateService;
+    private final DailyStatsService dailyStatsService;
+    private final TopServiceLeaderboard topServiceLeaderboard;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public PaymentService(
             PaymentRepository paymentRepository,
             UserRepository patientRepository,
             ServiceRepository serviceRepository,
-            PaginationService paginationService
+            PaginationService paginationService,
+            SearchService searchService,
+            OutboxService outboxService,
+            EmailTemplateService emailTemplateService,
+            DailyStatsService dailyStatsService,
+            TopServiceLeaderboard topServiceLeaderboard,
+            ObjectMapper objectMapper
     ) {
         this.paymentRepository = paymentRepository;
         this.patientRepository = patientRepository;
         this.serviceRepository = serviceRepository;
         this.paginationService = paginationService;
+        this.searchService = searchService;
+        this.outboxService = outboxService;
+        this.emailTemplateService = emailTemplateService;
+        this.dailyStatsService = dailyStatsService;
+        this.topServiceLeaderboard = topServiceLeaderboard;
+        this.objectMapper = objectMapper;
     }
 
     private Payment.PaymentStatus getPaymentStatus(String status) {
@@ -78,10 +114,34 @@ public class PaymentService {
         }
     }
 
-    public List<PaymentDTO> getAllPayments() {
-        return paymentRepository.findAll().stream()
-                .map(PaymentDTO::new)
-                .toList();
+    private void onPaymentPaid(Payment payment) {
+        dailyStatsService.recordRevenue(payment.getDate(), payment.getTotalPrice());
+        topServiceLeaderboard.recordPaid(payment);
+        sendPaymentReceiptEmail(payment);
+    }
+
+    private void sendPaymentReceiptEmail(Payment payment) {
+        String emailContent = emailTemplateService.render(EmailTemplateService.Template.PAYMENT_RECEIPT, Map.of(
+                "paymentId", payment.getPaymentId(),
+                "patientName", payment.getPatient().getName(),
+                "serviceName", payment.getService().getName(),
+                "method", payment.getMethod(),
+                "totalPrice", String.format("%,.0f VND", payment.getTotalPrice()),
+                "date", payment.getDate()
+        ));
+
+        outboxService.enqueueEmail(payment.getPatient().getEmail(), "Payment Receipt", emailContent);
+    }
+
+    public ListStreamService.Source<Payment, PaymentDTO> getAllPayments() {
+        return new ListStreamService.Source<>(
+                paymentRepository,
+                null,
+                Sort.Order.desc("date"),
+                "paymentId",
+                PaymentDTO::new,
+                List.of(Payment.class, User.class, Service.class)
+        );
     }
 
     public PaginationResponse<List<PaymentDTO>> getPayments(
@@ -89,7 +149,24 @@ public class PaymentService {
             String search, String status, String method, String date, String price
     ) {
         Pageable pageable = paginationService.getPageable(paginationDTO);
+        Specification<Payment> spec = getPaymentSpecification(patientId, serviceId, search, status, method, date, price);
+
+        return paginationService.getPage(
+                paymentRepository,
+                spec,
+                pageable,
+                paginationDTO,
+                "paymentId",
+                PaymentDTO::new,
+                "Payments retrieved successfully"
+        );
+    }
 
+    // Filters shared by the list and the export
+    public Specification<Payment> getPaymentSpecification(
+            UUID patientId, UUID serviceId,
+            String search, String status, String method, String date, String price
+    ) {
         Specification<Payment> spec = Specification.where(null);
 
         if (patientId != null) {
@@ -107,12 +184,7 @@ public class PaymentService {
                     cb.equal(root.get("service").get("serviceId"), service.getServiceId()));
         }
         if (search != null && !search.trim().isEmpty()) {
-            String searchLowercase = search.toLowerCase();
-            spec = spec.and((root, query, cb) ->
-                    cb.or(
-                            cb.like(cb.lower(root.get("patient").get("name")), "%" + searchLowercase + "%"),
-                            cb.like(cb.lower(root.get("service").get("name")), "%" + searchLowercase + "%")
-                    ));
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.PAYMENT, "paymentId", search));
         }
         if (status != null && !status.isEmpty()) {
             spec = spec.and((root, query, cb) ->
@@ -131,23 +203,28 @@ public class PaymentService {
             spec = spec.and(numberQueryParser.createPriceSpecification());
         }
 
-        Page<Payment> payments = paymentRepository.findAll(spec, pageable);
-
-        int totalPages = payments.getTotalPages();
-        long totalElements = payments.getTotalElements();
-        List<PaymentDTO> paymentDTOs = payments.map(PaymentDTO::new).toList();
-        int take = payments.getNumberOfElements();
-
-        return new PaginationResponse<>(
-                true,
-                "Payments retrieved successfully",
-                paymentDTOs,
-                paginationDTO.page,
-                paginationDTO.size,
-                take,
-                totalPages,
-                totalElements
+        return spec;
+    }
+
+    public void exportPayments(
+            Specification<Payment> spec,
+            ExportWriter.Format format,
+            ExportWriter.Target target
+    ) throws IOException {
+        ExportWriter<PaymentDTO> exportWriter = new ExportWriter<>(format, EXPORT_COLUMNS, objectMapper, target);
+
+        paginationService.forEachRow(
+                paymentRepository,
+                spec,
+                Sort.Order.desc("date"),
+                "paymentId",
+                EXPORT_CHUNK_SIZE,
+                Long.MAX_VALUE,
+                PaymentDTO::new,
+                chunk -> chunk.forEach(exportWriter::write)
         );
+
+        exportWriter.finish();
     }
 
     public PaymentDTO getPaymentById(UUID id) {
@@ -186,6 +263,8 @@ public class PaymentService {
             return newPaymentDTO;
         } else {
             savedPayment.setStatus(Payment.PaymentStatus.PAID);
+            onPaymentPaid(savedPayment);
+
             return new PaymentDTO(savedPayment);
         }
     }
@@ -203,6 +282,10 @@ public class PaymentService {
 
         Payment updatedPayment = paymentRepository.save(payment);
 
+        if (updatedPayment.getStatus() == Payment.PaymentStatus.PAID) {
+            onPaymentPaid(updatedPayment);
+        }
+
         return new PaymentDTO(updatedPayment);
     }
 
@@ -317,9 +400,16 @@ public class PaymentService {
             throw new BadRequestException("Invalid month. Please provide a value between 1 and 12.");
         }
 
-        Double profit = paymentRepository.calculateMonthlyProfit(month, year);
-        System.out.println(profit);
+        return dailyStatsService.getMonthTotals(year, month).getRevenue();
+    }
 
-        return profit != null ? profit : 0;
+    public List<Double> getRevenuesForYear(Integer year) {
+        if (year == null) {
+            throw new BadRequestException("Please provide year");
+        }
+
+        return dailyStatsService.getMonthlyTotals(year).stream()
+                .map(DailyStat::getRevenue)
+                .toList();
     }
 }
@@ -4,11 +4,11 @@ import com.example.cliniccare.dto.PaginationDTO;
 import com.example.cliniccare.dto.PromotionDTO;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.entity.Promotion;
+import com.example.cliniccare.entity.SearchDocument;
 import com.example.cliniccare.repository.PromotionRepository;
 import com.example.cliniccare.response.PaginationResponse;
 import com.example.cliniccare.utils.NumberQueryParser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -20,11 +20,23 @@ import java.util.UUID;
 public class PromotionService {
     private final PromotionRepository promotionRepository;
     private final PaginationService paginationService;
+    private final SearchService searchService;
+    private final TopServiceLeaderboard topServiceLeaderboard;
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public PromotionService(PromotionRepository promotionRepository, PaginationService paginationService) {
+    public PromotionService(
+            PromotionRepository promotionRepository,
+            PaginationService paginationService,
+            SearchService searchService,
+            TopServiceLeaderboard topServiceLeaderboard,
+            CatalogCache catalogCache
+    ) {
         this.promotionRepository = promotionRepository;
         this.paginationService = paginationService;
+        this.searchService = searchService;
+        this.topServiceLeaderboard = topServiceLeaderboard;
+        this.catalogCache = catalogCache;
     }
 
     private Promotion.PromotionStatus getPromotionStatus(String status) {
@@ -52,8 +64,7 @@ public class PromotionService {
         Specification<Promotion> spec = Specification.where(null);
 
         if (search != null && !search.isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("description")), "%" + search.toLowerCase() + "%"));
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.PROMOTION, "promotionId", search));
         }
         if (status != null && !status.isEmpty()) {
             spec = spec.and((root, query, cb) ->
@@ -64,21 +75,14 @@ public class PromotionService {
             spec = spec.and(numberQueryParser.createPriceSpecification());
         }
 
-        Page<Promotion> promotions = promotionRepository.findAll(spec, pageable);
-
-        int totalPages = promotions.getTotalPages();
-        long totalElements = promotions.getTotalElements();
-        int take = promotions.getNumberOfElements();
-
-        return new PaginationResponse<>(
-                true,
-                "Get promotions successfully",
-                promotions.getContent().stream().map(PromotionDTO::new).toList(),
-                paginationDTO.page,
-                paginationDTO.size,
-                take,
-                totalPages,
-                totalElements
+        return paginationService.getPage(
+                promotionRepository,
+                spec,
+                pageable,
+                paginationDTO,
+                "promotionId",
+                PromotionDTO::new,
+                "Get promotions successfully"
         );
     }
 
@@ -115,6 +119,9 @@ public class PromotionService {
         promotion.setDescription(promotionDTO.getDescription());
 
         Promotion savedPromotion = promotionRepository.save(promotion);
+        topServiceLeaderboard.invalidate();
+        catalogCache.invalidate(CatalogCache.Region.SERVICES);
+
         return new PromotionDTO(savedPromotion);
     }
 }
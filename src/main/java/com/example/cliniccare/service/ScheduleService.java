@@ -7,19 +7,26 @@ import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.entity.DoctorProfile;
 import com.example.cliniccare.entity.Schedule;
 import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.entity.SearchDocument;
+import com.example.cliniccare.repository.AppointmentRepository;
 import com.example.cliniccare.repository.DoctorProfileRepository;
 import com.example.cliniccare.repository.ScheduleRepository;
 import com.example.cliniccare.repository.ServiceRepository;
 import com.example.cliniccare.response.PaginationResponse;
 import com.example.cliniccare.utils.DateQueryParser;
 import com.example.cliniccare.utils.Formatter;
+import com.example.cliniccare.utils.SlotGenerator;
 import com.example.cliniccare.utils.TimeQueryParser;
 import com.example.cliniccare.validation.Validation;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -31,19 +38,34 @@ public class ScheduleService {
     private final ScheduleRepository scheduleRepository;
     private final ServiceRepository serviceRepository;
     private final DoctorProfileRepository doctorProfileRepository;
+    private final AppointmentRepository appointmentRepository;
     private final PaginationService paginationService;
+    private final SearchService searchService;
+    private final CatalogCache catalogCache;
+    private final AvailabilityIndex availabilityIndex;
+
+    @Value("${availability.max-days:92}")
+    private int maxDays;
 
     @Autowired
     public ScheduleService(
             ScheduleRepository scheduleRepository,
             ServiceRepository serviceRepository,
             DoctorProfileRepository doctorProfileRepository,
-            PaginationService paginationService
+            AppointmentRepository appointmentRepository,
+            PaginationService paginationService,
+            SearchService searchService,
+            CatalogCache catalogCache,
+            AvailabilityIndex availabilityIndex
     ) {
         this.scheduleRepository = scheduleRepository;
         this.serviceRepository = serviceRepository;
         this.doctorProfileRepository = doctorProfileRepository;
+        this.appointmentRepository = appointmentRepository;
         this.paginationService = paginationService;
+        this.searchService = searchService;
+        this.catalogCache = catalogCache;
+        this.availabilityIndex = availabilityIndex;
     }
 
     private Schedule.ScheduleStatus getScheduleStatus(String status) {
@@ -56,33 +78,53 @@ public class ScheduleService {
         }
     }
 
-    private Boolean validateConflict(LocalDate date, LocalTime time, Integer duration) {
+    private Boolean validateConflict(
+            UUID doctorProfileId,
+            UUID scheduleId,
+            LocalDate date,
+            LocalTime time,
+            Integer duration
+    ) {
         LocalDateTime startDateTime = date.atTime(time);
         LocalDateTime endDateTime = startDateTime.plusMinutes(duration);
 
-        List<Schedule> conflictingSchedules = scheduleRepository
-                .findByDateTimeBetween(startDateTime, endDateTime);
+        // A doctor's schedules never overlap each other, so only the latest one starting before
+        // the new end can reach into the new slot (one index seek on doctor_profile_id, date_time)
+        Optional<ScheduleRepository.ScheduleInterval> previousSchedule = scheduleId == null
+                ? scheduleRepository.findFirstByDoctor_DoctorProfileIdAndDateTimeBeforeOrderByDateTimeDesc(
+                        doctorProfileId, endDateTime)
+                : scheduleRepository.findFirstByDoctor_DoctorProfileIdAndScheduleIdNotAndDateTimeBeforeOrderByDateTimeDesc(
+                        doctorProfileId, scheduleId, endDateTime);
+
+        previousSchedule
+                .filter(schedule -> schedule.getDateTime().plusMinutes(schedule.getDuration()).isAfter(startDateTime))
+                .ifPresent(conflictingSchedule -> {
+                    String conflictingStartTime = Formatter.formatTime(conflictingSchedule.getDateTime());
+                    String conflictingEndTime = Formatter.formatTime(
+                            conflictingSchedule.getDateTime().plusMinutes(conflictingSchedule.getDuration()));
+
+                    throw new BadRequestException(
+                            "There is already a schedule from " + conflictingStartTime + " to " + conflictingEndTime +
+                                    " on " + conflictingSchedule.getDateTime().toLocalDate()
+                    );
+                });
 
-        if (!conflictingSchedules.isEmpty()) {
-            Schedule conflictingSchedule = conflictingSchedules.getFirst();
-            String conflictingStartTime = Formatter.formatTime(conflictingSchedule.getDateTime());
-            String conflictingEndTime = Formatter.formatTime(
-                    conflictingSchedule.getDateTime().plusMinutes(conflictingSchedule.getDuration()));
-
-            throw new BadRequestException(
-                    "There is already a schedule from " + conflictingStartTime + " to " + conflictingEndTime +
-                            " on " + conflictingSchedule.getDateTime().toLocalDate()
-            );
-        }
         return true;
     }
 
-    public List<ScheduleDTO> getAllSchedules(UUID userId) {
-        List<Schedule> schedules = userId == null
-                ? scheduleRepository.findAllByOrderByDateTimeDesc()
-                : scheduleRepository.findAllByDoctor_User_UserIdOrderByDateTimeDesc(userId);
-
-        return schedules.stream().map(ScheduleDTO::new).collect(Collectors.toList());
+    public ListStreamService.Source<Schedule, ScheduleDTO> getAllSchedules(UUID userId) {
+        Specification<Schedule> spec = userId == null
+                ? null
+                : (root, query, cb) -> cb.equal(root.get("doctor").get("user").get("userId"), userId);
+
+        return new ListStreamService.Source<>(
+                scheduleRepository,
+                spec,
+                Sort.Order.desc("dateTime"),
+                "scheduleId",
+                ScheduleDTO::new,
+                List.of(Schedule.class, Service.class, DoctorProfile.class, User.class)
+        );
     }
 
     public PaginationResponse<List<ScheduleDTO>> getSchedules(
@@ -93,10 +135,7 @@ public class ScheduleService {
         Specification<Schedule> spec = Specification.where(null);
 
         if (search != null && !search.isEmpty()) {
-            spec = spec.and((root, query, cb) -> cb.or(
-                    cb.like(root.get("doctor").get("user").get("name"), "%" + search + "%"),
-                    cb.like(root.get("service").get("name"), "%" + search + "%")
-            ));
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.SCHEDULE, "scheduleId", search));
         }
         if (date != null && !date.isEmpty()) {
             DateQueryParser<Schedule> dateQueryParser = new DateQueryParser<>(date, "dateTime");
@@ -125,26 +164,14 @@ public class ScheduleService {
                     cb.equal(root.get("doctor").get("doctorProfileId"), doctor.getDoctorProfileId()));
         }
 
-        Page<Schedule> schedules = scheduleRepository.findAll(spec, pageable);
-
-        int totalPages = schedules.getTotalPages();
-        long totalElements = schedules.getTotalElements();
-        int take = schedules.getNumberOfElements();
-
-        List<ScheduleDTO> scheduleDTOS = schedules
-                .stream()
-                .map(ScheduleDTO::new)
-                .collect(Collectors.toList());
-
-        return new PaginationResponse<>(
-                true,
-                "Get schedules successfully",
-                scheduleDTOS,
-                paginationDTO.page,
-                paginationDTO.size,
-                take,
-                totalPages,
-                totalElements
+        return paginationService.getPage(
+                scheduleRepository,
+                spec,
+                pageable,
+                paginationDTO,
+                "scheduleId",
+                ScheduleDTO::new,
+                "Get schedules successfully"
         );
     }
 
@@ -156,11 +183,58 @@ public class ScheduleService {
         return new ScheduleDTO(schedule);
     }
 
+    // Free 15 minute slots per day, for one doctor or service, or for every doctor when neither is given
+    public List<AvailabilityDTO> getAvailability(UUID doctorId, UUID serviceId, String from, String to) {
+        if (doctorId != null && serviceId != null) {
+            throw new BadRequestException("Filter by either doctor or service, not both");
+        }
+        if ((!from.isEmpty() && Validation.isNotValidDate(from)) || (!to.isEmpty() && Validation.isNotValidDate(to))) {
+            throw new BadRequestException("Invalid date format (yyyy-MM-dd)");
+        }
+
+        LocalDate startDate = from.isEmpty() ? LocalDate.now() : LocalDate.parse(from);
+        LocalDate endDate = to.isEmpty() ? startDate.plusDays(30) : LocalDate.parse(to);
+
+        if (startDate.isAfter(endDate)) {
+            throw new BadRequestException("Start date must be before end date");
+        }
+        if (startDate.plusDays(maxDays).isBefore(endDate)) {
+            throw new BadRequestException("The date range cannot be longer than " + maxDays + " days");
+        }
+
+        int slotMinutes = AvailabilityIndex.SLOT_MINUTES;
+
+        if (doctorId != null) {
+            return List.of(new AvailabilityDTO(
+                    doctorId, null, slotMinutes, availabilityIndex.getDoctorDays(doctorId, startDate, endDate)));
+        }
+        if (serviceId != null) {
+            return List.of(new AvailabilityDTO(
+                    null, serviceId, slotMinutes, availabilityIndex.getServiceDays(serviceId, startDate, endDate)));
+        }
+
+        List<AvailabilityDTO> availability = new ArrayList<>();
+        for (UUID id : availabilityIndex.getDoctorIds()) {
+            Map<LocalDate, String> days = availabilityIndex.getDoctorDays(id, startDate, endDate);
+            if (!days.isEmpty()) {
+                availability.add(new AvailabilityDTO(id, null, slotMinutes, days));
+            }
+        }
+
+        return availability;
+    }
+
+    @Transactional
     public ScheduleDTO createSchedule(ScheduleFormDTO scheduleDTO) {
         LocalDate date = scheduleDTO.getDateTime().toLocalDate();
         LocalTime time = scheduleDTO.getDateTime().toLocalTime();
 
-        if (!validateConflict(date, time, scheduleDTO.getDuration())) {
+        // Held until commit, so a concurrent write for the same doctor waits and then sees this schedule
+        DoctorProfile doctorProfile = doctorProfileRepository
+                .findByIdForUpdate(scheduleDTO.getDoctorProfileId())
+                .orElseThrow(() -> new NotFoundException("Doctor not found"));
+
+        if (!validateConflict(doctorProfile.getDoctorProfileId(), null, date, time, scheduleDTO.getDuration())) {
             return null;
         }
 
@@ -172,10 +246,6 @@ public class ScheduleService {
             throw new BadRequestException("Service is unavailable");
         }
 
-        DoctorProfile doctorProfile = doctorProfileRepository
-                .findById(scheduleDTO.getDoctorProfileId())
-                .orElseThrow(() -> new NotFoundException("Doctor not found"));
-
         Schedule schedule = new Schedule();
         schedule.setService(service);
         schedule.setDoctor(doctorProfile);
@@ -184,10 +254,13 @@ public class ScheduleService {
         schedule.setStatus(getScheduleStatus(scheduleDTO.getStatus()));
 
         scheduleRepository.save(schedule);
+        invalidateSchedules();
+        availabilityIndex.update(schedule);
 
         return new ScheduleDTO(schedule);
     }
 
+    @Transactional
     public List<ScheduleDTO> autoCreateSchedules(ScheduleFormDTO scheduleRequest) {
         if (scheduleRequest.getDates().length == 0) {
             throw new BadRequestException("Dates are required");
@@ -202,29 +275,27 @@ public class ScheduleService {
         Service service = serviceRepository.findById(scheduleRequest.getServiceId())
                 .orElseThrow(() -> new NotFoundException("Service not found"));
 
-        DoctorProfile doctorProfile = doctorProfileRepository.findById(scheduleRequest.getDoctorProfileId())
+        DoctorProfile doctorProfile = doctorProfileRepository.findByIdForUpdate(scheduleRequest.getDoctorProfileId())
                 .orElseThrow(() -> new NotFoundException("Doctor not found"));
 
-        List<ScheduleDTO> result = new ArrayList<>();
+        Schedule.ScheduleStatus status = getScheduleStatus(scheduleRequest.getStatus());
+        Map<LocalDate, List<SlotGenerator.Interval>> busyIntervals = getBusyIntervals(
+                doctorProfile.getDoctorProfileId(),
+                Arrays.stream(scheduleRequest.getDates()).min(Comparator.naturalOrder()).orElseThrow(),
+                Arrays.stream(scheduleRequest.getDates()).max(Comparator.naturalOrder()).orElseThrow()
+        );
+
+        List<Schedule> schedules = new ArrayList<>();
         LocalTime workingStart = LocalTime.of(8, 0);
         LocalTime workingEnd = LocalTime.of(23, 0);
         int schedulesPerDay = (int) Math.ceil((double) scheduleRequest.getAmount() / scheduleRequest.getDates().length);
         int remainingSchedules = scheduleRequest.getAmount();
 
         for (LocalDate date : scheduleRequest.getDates()) {
-            List<Schedule> existingSchedules = scheduleRepository
-                    .findByDateTimeBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
-
-            List<TimeSlot> busySlots = existingSchedules.stream()
-                    .map(s -> new TimeSlot(
-                            LocalTime.from(s.getDateTime()),
-                            LocalTime.from(s.getDateTime().plusMinutes(s.getDuration()))
-                    ))
-                    .collect(Collectors.toList());
-
+            List<SlotGenerator.Interval> busySlots = busyIntervals.computeIfAbsent(date, d -> new ArrayList<>());
             int schedulesToCreate = Math.min(schedulesPerDay, remainingSchedules);
 
-            List<TimeSlot> availableSlots = getOptimalTimeSlots(
+            List<TimeSlot> availableSlots = SlotGenerator.getOptimalTimeSlots(
                     workingStart,
                     workingEnd,
                     busySlots,
@@ -238,85 +309,103 @@ public class ScheduleService {
             }
 
             for (TimeSlot slot : availableSlots) {
-                LocalDateTime scheduleDate = date.atTime(slot.getStart());
-
                 Schedule schedule = new Schedule();
                 schedule.setService(service);
                 schedule.setDoctor(doctorProfile);
-                schedule.setDateTime(scheduleDate);
+                schedule.setDateTime(date.atTime(slot.getStart()));
                 schedule.setDuration(scheduleRequest.getDuration());
-                schedule.setStatus(Schedule.ScheduleStatus.valueOf(scheduleRequest.getStatus().toUpperCase()));
-
-                Schedule createdSchedule = scheduleRepository.save(schedule);
-
-                ScheduleDTO scheduleDTO = new ScheduleDTO(createdSchedule);
-                result.add(scheduleDTO);
+                schedule.setStatus(status);
+                schedules.add(schedule);
+
+                // The same date may be requested more than once
+                busySlots.add(new SlotGenerator.Interval(
+                        slot.getStart().toSecondOfDay() / 60,
+                        slot.getEnd().toSecondOfDay() / 60
+                ));
             }
+            busySlots.sort(Comparator.comparingInt(SlotGenerator.Interval::start));
 
             remainingSchedules -= schedulesToCreate;
         }
 
-        return result;
-    }
+        // Inserted in JDBC batches (hibernate.jdbc.batch_size)
+        List<Schedule> saved = scheduleRepository.saveAll(schedules);
+        invalidateSchedules();
+        availabilityIndex.updateAll(saved);
 
-    private List<TimeSlot> getOptimalTimeSlots(
-            LocalTime workingStart,
-            LocalTime workingEnd,
-            List<TimeSlot> busySlots,
-            int duration,
-            int requiredSlots
-    ) {
-        List<TimeSlot> result = new ArrayList<>();
-        LocalTime currentTime = workingStart;
-
-        while (currentTime.plusMinutes(duration).isBefore(workingEnd) && result.size() < requiredSlots) {
-            TimeSlot potentialSlot = new TimeSlot(currentTime, currentTime.plusMinutes(duration));
-
-            if (isSlotAvailable(potentialSlot, busySlots)) {
-                result.add(potentialSlot);
-                currentTime = currentTime.plusMinutes(duration + 15);
-            } else {
-                currentTime = currentTime.plusMinutes(15);
-            }
-        }
+        return saved.stream()
+                .map(ScheduleDTO::new)
+                .collect(Collectors.toList());
+    }
 
-        return result;
+    // The doctor list filters by service through schedules
+    private void invalidateSchedules() {
+        catalogCache.invalidate(CatalogCache.Region.SCHEDULES, CatalogCache.Region.DOCTORS);
     }
 
-    private boolean isSlotAvailable(TimeSlot newSlot, List<TimeSlot> busySlots) {
-        for (TimeSlot busySlot : busySlots) {
-            if (newSlot.getStart().isBefore(busySlot.getEnd()) && busySlot.getStart().isBefore(newSlot.getEnd())) {
-                return false;
+    // Loads the doctor's schedules for the whole range in one query and buckets them per day, sorted by start
+    private Map<LocalDate, List<SlotGenerator.Interval>> getBusyIntervals(
+            UUID doctorProfileId,
+            LocalDate firstDate,
+            LocalDate lastDate
+    ) {
+        List<ScheduleRepository.ScheduleInterval> schedules = scheduleRepository
+                .findAllByDoctor_DoctorProfileIdAndDateTimeBetweenOrderByDateTimeAsc(
+                        doctorProfileId,
+                        firstDate.minusDays(1).atStartOfDay(),
+                        lastDate.plusDays(1).atStartOfDay()
+                );
+
+        Map<LocalDate, List<SlotGenerator.Interval>> busyIntervals = new HashMap<>();
+
+        for (ScheduleRepository.ScheduleInterval schedule : schedules) {
+            LocalDateTime start = schedule.getDateTime();
+            LocalDateTime end = start.plusMinutes(schedule.getDuration());
+
+            for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+                LocalDateTime startOfDay = date.atStartOfDay();
+
+                busyIntervals.computeIfAbsent(date, d -> new ArrayList<>()).add(new SlotGenerator.Interval(
+                        (int) Duration.between(startOfDay, start).toMinutes(),
+                        (int) Duration.between(startOfDay, end).toMinutes()
+                ));
             }
         }
-        return true;
+
+        return busyIntervals;
     }
 
+    @Transactional
     public ScheduleDTO updateSchedule(UUID id, ScheduleFormDTO scheduleDTO) {
         Schedule schedule = scheduleRepository
                 .findById(id)
                 .orElseThrow(() -> new NotFoundException("Schedule not found"));
 
-        if (schedule.getAppointment() != null) {
+        if (appointmentRepository.existsBySchedule_ScheduleId(id)) {
             throw new BadRequestException("Cannot update schedule with appointment");
         }
 
-        if (scheduleDTO.getDuration() != null) {
-            schedule.setDuration(scheduleDTO.getDuration());
-        }
-
         LocalDateTime dateTime = scheduleDTO.getDateTime();
-        LocalDate date = dateTime.toLocalDate();
-        LocalTime time = dateTime.toLocalTime();
+        int duration = scheduleDTO.getDuration() != null ? scheduleDTO.getDuration() : schedule.getDuration();
+
+        // A longer duration can reach into the next schedule just like a new start time
+        if (!schedule.getDateTime().equals(dateTime) || duration != schedule.getDuration()) {
+            UUID doctorProfileId = schedule.getDoctor().getDoctorProfileId();
+            doctorProfileRepository.findByIdForUpdate(doctorProfileId)
+                    .orElseThrow(() -> new NotFoundException("Doctor not found"));
 
-        if (!schedule.getDateTime().equals(dateTime)) {
-            if (!validateConflict(date, time, schedule.getDuration())) {
+            if (!validateConflict(
+                    doctorProfileId, schedule.getScheduleId(), dateTime.toLocalDate(), dateTime.toLocalTime(), duration
+            )) {
                 throw new BadRequestException("There is a conflict with another schedule");
             }
         }
+        schedule.setDuration(duration);
         schedule.setDateTime(dateTime);
 
         scheduleRepository.save(schedule);
+        invalidateSchedules();
+        availabilityIndex.update(schedule);
 
         return new ScheduleDTO(schedule);
     }
@@ -0,0 +1,420 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.Feedback;
+import com.example.cliniccare.entity.MedicalRecord;
+import com.example.cliniccare.entity.Payment;
+import com.example.cliniccare.entity.Promotion;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.SearchDocument;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.repository.SearchDocumentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Full-text search for the `search` parameter of list endpoints. Each searchable row has one
+// search_documents row holding its own text and the names of the rows it joins to, covered by a
+// FULLTEXT index on MySQL. Writes to any of those source tables re-index the affected documents
+// shortly after commit; a nightly rebuild repairs anything missed.
+@org.springframework.stereotype.Service
+public class SearchService implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String PATIENT_DOCTOR_SERVICE_JOINS =
+            " LEFT JOIN users p ON p.user_id = %1$s.patient_id" +
+            " LEFT JOIN doctor_profiles d ON d.doctor_profile_id = %1$s.doctor_profile_id" +
+            " LEFT JOIN users du ON du.user_id = d.user_id" +
+            " LEFT JOIN services sv ON sv.service_id = %1$s.service_id";
+
+    // sources: entity whose writes change the document -> rows of the index it affects
+    private record Index(
+            SearchDocument.EntityType type,
+            Class<?> entityClass,
+            String idColumn,
+            String from,
+            String content,
+            Map<Class<?>, String> sources
+    ) {}
+
+    private static final List<Index> INDEXES = List.of(
+            new Index(
+                    SearchDocument.EntityType.APPOINTMENT,
+                    Appointment.class,
+                    "a.appointment_id",
+                    "appointments a" +
+                            " LEFT JOIN schedules s ON s.schedule_id = a.schedule_id" +
+                            " LEFT JOIN services sv ON sv.service_id = s.service_id",
+                    "a.patient_name, a.patient_phone, a.cancel_reason, sv.name",
+                    Map.of(
+                            Schedule.class, "s.schedule_id IN (:ids)",
+                            Service.class, "sv.service_id IN (:ids)"
+                    )
+            ),
+            new Index(
+                    SearchDocument.EntityType.DOCTOR_PROFILE,
+                    DoctorProfile.class,
+                    "d.doctor_profile_id",
+                    "doctor_profiles d LEFT JOIN users u ON u.user_id = d.user_id",
+                    "u.name, u.email, d.specialty",
+                    Map.of(User.class, "u.user_id IN (:ids)")
+            ),
+            new Index(
+                    SearchDocument.EntityType.FEEDBACK,
+                    Feedback.class,
+                    "f.feedback_id",
+                    "feedbacks f" + PATIENT_DOCTOR_SERVICE_JOINS.formatted("f"),
+                    "f.feedback, p.name, du.name, sv.name",
+                    Map.of(
+                            User.class, "p.user_id IN (:ids) OR du.user_id IN (:ids)",
+                            DoctorProfile.class, "d.doctor_profile_id IN (:ids)",
+                            Service.class, "sv.service_id IN (:ids)"
+                    )
+            ),
+            new Index(
+                    SearchDocument.EntityType.MEDICAL_RECORD,
+                    MedicalRecord.class,
+                    "m.medical_record_id",
+                    "medical_records m" + PATIENT_DOCTOR_SERVICE_JOINS.formatted("m"),
+                    "p.name, du.name, sv.name",
+                    Map.of(
+                            User.class, "p.user_id IN (:ids) OR du.user_id IN (:ids)",
+                            DoctorProfile.class, "d.doctor_profile_id IN (:ids)",
+                            Service.class, "sv.service_id IN (:ids)"
+                    )
+            ),
+            new Index(
+                    SearchDocument.EntityType.PAYMENT,
+                    Payment.class,
+                    "py.payment_id",
+                    "payments py" +
+                            " LEFT JOIN users p ON p.user_id = py.patient_id" +
+                            " LEFT JOIN services sv ON sv.service_id = py.service_id",
+                    "p.name, sv.name",
+                    Map.of(
+                            User.class, "p.user_id IN (:ids)",
+                            Service.class, "sv.service_id IN (:ids)"
+                    )
+            ),
+            new Index(
+                    SearchDocument.EntityType.PROMOTION,
+                    Promotion.class,
+                    "pr.promotion_id",
+                    "promotions pr",
+                    "pr.description",
+                    Map.of()
+            ),
+            new Index(
+                    SearchDocument.EntityType.SCHEDULE,
+                    Schedule.class,
+                    "s.schedule_id",
+                    "schedules s" +
+                            " LEFT JOIN doctor_profiles d ON d.doctor_profile_id = s.doctor_profile_id" +
+                            " LEFT JOIN users du ON du.user_id = d.user_id" +
+                            " LEFT JOIN services sv ON sv.service_id = s.service_id",
+                    "du.name, sv.name",
+                    Map.of(
+                            User.class, "du.user_id IN (:ids)",
+                            DoctorProfile.class, "d.doctor_profile_id IN (:ids)",
+                            Service.class, "sv.service_id IN (:ids)"
+                    )
+            ),
+            new Index(
+                    SearchDocument.EntityType.SERVICE,
+                    Service.class,
+                    "sv.service_id",
+                    "services sv",
+                    "sv.name",
+                    Map.of()
+            ),
+            new Index(
+                    SearchDocument.EntityType.USER,
+                    User.class,
+                    "u.user_id",
+                    "users u",
+                    "u.name, u.phone, u.email",
+                    Map.of()
+            )
+    );
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SearchDocumentRepository searchDocumentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+
+    private final Set<Class<?>> sourceClasses = new HashSet<>();
+    private final Map<Class<?>, Set<UUID>> pending = new HashMap<>();
+    private boolean fullText;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public SearchService(
+            EntityManagerFactory entityManagerFactory,
+            SearchDocumentRepository searchDocumentRepository,
+            PlatformTransactionManager transactionManager,
+            CatalogCache catalogCache
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.searchDocumentRepository = searchDocumentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogCache = catalogCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        fullText = sessionFactory.getJdbcServices().getDialect() instanceof MySQLDialect;
+
+        INDEXES.forEach(index -> {
+            sourceClasses.add(index.entityClass());
+            sourceClasses.addAll(index.sources().keySet());
+        });
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (fullText) {
+            createFullTextIndex();
+        }
+        if (searchDocumentRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    // Matches rows whose document contains every word of the search as a word prefix
+    public <T> Specification<T> matches(SearchDocument.EntityType type, String idAttribute, String search) {
+        List<String> terms = getTerms(search);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        return (root, query, cb) -> {
+            Subquery<UUID> documents = query.subquery(UUID.class);
+            Root<SearchDocument> document = documents.from(SearchDocument.class);
+
+            Predicate matches = fullText
+                    ? cb.greaterThan(
+                            cb.function(
+                                    "match_against",
+                                    Double.class,
+                                    document.<String>get("content"),
+                                    cb.literal(terms.stream().map(term -> "+" + term + "*").collect(Collectors.joining(" ")))
+                            ),
+                            0.0
+                    )
+                    // Databases without FULLTEXT (H2 in tests) fall back to scanning the documents
+                    : cb.and(terms.stream()
+                            .map(term -> cb.like(cb.lower(document.<String>get("content")), "%" + term + "%"))
+                            .toArray(Predicate[]::new));
+
+            documents.select(document.get("entityId"))
+                    .where(cb.equal(document.get("entityType"), type), matches);
+
+            return root.get(idAttribute).in(documents);
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${search.index-interval:500}")
+    public void flush() {
+        Map<Class<?>, Set<UUID>> changes;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = new HashMap<>(pending);
+            pending.clear();
+        }
+
+        Set<SearchDocument.EntityType> indexed = EnumSet.noneOf(SearchDocument.EntityType.class);
+        changes.forEach((source, ids) -> {
+            List<UUID> idList = new ArrayList<>(ids);
+
+            for (int i = 0; i < idList.size(); i += CHUNK_SIZE) {
+                List<UUID> chunk = idList.subList(i, Math.min(i + CHUNK_SIZE, idList.size()));
+
+                try {
+                    transactionTemplate.executeWithoutResult(status -> reindex(source, chunk, indexed));
+                } catch (Exception e) {
+                    logger.error("Failed to re-index search documents for {}: {}", source.getSimpleName(), e.getMessage(), e);
+                }
+            }
+        });
+
+        // Cached catalog searches may have run against the old documents
+        catalogCache.invalidateSearches(indexed);
+    }
+
+    @Scheduled(cron = "${search.rebuild-cron:0 0 3 * * *}")
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> INDEXES.forEach(index -> {
+            entityManager.createNativeQuery("DELETE FROM search_documents WHERE entity_type = :type")
+                    .setParameter("type", index.type().ordinal())
+                    .executeUpdate();
+
+            int indexed = entityManager.createNativeQuery(insertSql(index, null))
+                    .setParameter("type", index.type().ordinal())
+                    .executeUpdate();
+
+            logger.info("Indexed {} {} search documents", indexed, index.type());
+        }));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        enqueueAfterCommit(event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        enqueueAfterCommit(event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        enqueueAfterCommit(event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void enqueueAfterCommit(Class<?> source, Object id) {
+        if (!sourceClasses.contains(source) || !(id instanceof UUID uuid)) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(source, uuid);
+                }
+            });
+        } else {
+            enqueue(source, uuid);
+        }
+    }
+
+    private void enqueue(Class<?> source, UUID id) {
+        synchronized (pending) {
+            pending.computeIfAbsent(source, s -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void reindex(Class<?> source, List<UUID> ids, Set<SearchDocument.EntityType> indexed) {
+        for (Index index : INDEXES) {
+            String condition;
+
+            if (index.entityClass() == source) {
+                condition = index.idColumn() + " IN (:ids)";
+
+                // Also drops documents of rows that were hard deleted
+                entityManager.createNativeQuery(
+                                "DELETE FROM search_documents WHERE entity_type = :type AND entity_id IN (:ids)")
+                        .setParameter("type", index.type().ordinal())
+                        .setParameter("ids", ids)
+                        .executeUpdate();
+            } else if (index.sources().containsKey(source)) {
+                condition = index.sources().get(source);
+
+                entityManager.createNativeQuery(
+                                "DELETE FROM search_documents WHERE entity_type = :type AND entity_id IN (" +
+                                        "SELECT " + index.idColumn() + " FROM " + index.from() +
+                                        " WHERE " + condition + ")")
+                        .setParameter("type", index.type().ordinal())
+                        .setParameter("ids", ids)
+                        .executeUpdate();
+            } else {
+                continue;
+            }
+
+            entityManager.createNativeQuery(insertSql(index, condition))
+                    .setParameter("type", index.type().ordinal())
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+            indexed.add(index.type());
+        }
+    }
+
+    private String insertSql(Index index, String condition) {
+        return "INSERT INTO search_documents (entity_id, entity_type, content) " +
+                "SELECT " + index.idColumn() + ", :type, CONCAT_WS(' ', " + index.content() + ") " +
+                "FROM " + index.from() +
+                (condition != null ? " WHERE " + condition : "");
+    }
+
+    private void createFullTextIndex() {
+        Number existing = (Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM information_schema.statistics " +
+                                "WHERE table_schema = DATABASE() AND table_name = 'search_documents' " +
+                                "AND index_name = 'ft_search_documents_content'")
+                .getSingleResult();
+
+        if (existing.intValue() == 0) {
+            transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                            "ALTER TABLE search_documents ADD FULLTEXT INDEX ft_search_documents_content (content)")
+                    .executeUpdate());
+        }
+    }
+
+    // Lowercased words; FULLTEXT boolean operators and other punctuation only separate words
+    private List<String> getTerms(String search) {
+        if (search == null) {
+            return List.of();
+        }
+
+        return Arrays.stream(search.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
@@ -6,20 +6,17 @@ import com.example.cliniccare.dto.TopServiceDTO;
 import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
 import com.example.cliniccare.entity.Service;
-import com.example.cliniccare.repository.PaymentRepository;
+import com.example.cliniccare.entity.SearchDocument;
 import com.example.cliniccare.repository.PromotionRepository;
 import com.example.cliniccare.repository.ServiceRepository;
 import com.example.cliniccare.response.PaginationResponse;
 import com.example.cliniccare.utils.NumberQueryParser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,23 +24,29 @@ import java.util.UUID;
 public class ServiceManager {
     private final ServiceRepository serviceRepository;
     private final PromotionRepository promotionRepository;
-    private final PaymentRepository paymentRepository;
+    private final TopServiceLeaderboard topServiceLeaderboard;
     private final PaginationService paginationService;
+    private final SearchService searchService;
     private final FirebaseStorageService firebaseStorageService;
+    private final CatalogCache catalogCache;
 
     @Autowired
     public ServiceManager(
             ServiceRepository serviceRepository,
             PromotionRepository promotionRepository,
-            PaymentRepository paymentRepository,
+            TopServiceLeaderboard topServiceLeaderboard,
             PaginationService paginationService,
-            FirebaseStorageService firebaseStorageService
+            SearchService searchService,
+            FirebaseStorageService firebaseStorageService,
+            CatalogCache catalogCache
     ) {
         this.serviceRepository = serviceRepository;
         this.promotionRepository = promotionRepository;
-        this.paymentRepository = paymentRepository;
+        this.topServiceLeaderboard = topServiceLeaderboard;
         this.paginationService = paginationService;
+        this.searchService = searchService;
         this.firebaseStorageService = firebaseStorageService;
+        this.catalogCache = catalogCache;
     }
 
     private Service.ServiceStatus getServiceStatus(String status) {
@@ -76,8 +79,7 @@ public class ServiceManager {
                 .where((root, query, cb) -> cb.isNull(root.get("deleteAt")));
 
         if (search != null && !search.isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(root.get("name"), "%" + search + "%"));
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.SERVICE, "serviceId", search));
         }
         if (price != null && !price.isEmpty()) {
             NumberQueryParser<Service> numberQueryParser = new NumberQueryParser<>(price, "price");
@@ -88,21 +90,14 @@ public class ServiceManager {
                     cb.equal(root.get("status"), getServiceStatus(status)));
         }
 
-        Page<Service> services = serviceRepository.findAll(spec, pageable);
-
-        int totalPages = services.getTotalPages();
-        long totalElements = services.getTotalElements();
-        int take = services.getNumberOfElements();
-
-        return new PaginationResponse<>(
-                true,
-                "Get services successfully",
-                services.getContent().stream().map(ServiceDTO::new).toList(),
-                paginationDTO.page,
-                paginationDTO.size,
-                take,
-                totalPages,
-                totalElements
+        return paginationService.getPage(
+                serviceRepository,
+                spec,
+                pageable,
+                paginationDTO,
+                "serviceId",
+                ServiceDTO::new,
+                "Get services successfully"
         );
     }
 
@@ -126,6 +121,8 @@ public class ServiceManager {
         service.setPromotion(promotionRepository.findByPromotionId(serviceDTO.getPromotionId()).orElse(null));
 
         Service savedService = serviceRepository.save(service);
+        catalogCache.invalidate(CatalogCache.Region.SERVICES);
+
         return new ServiceDTO(savedService);
     }
 
@@ -153,6 +150,9 @@ public class ServiceManager {
         }
 
         Service savedService = serviceRepository.save(service);
+        topServiceLeaderboard.invalidate();
+        invalidateServiceDetails();
+
         return new ServiceDTO(savedService);
     }
 
@@ -163,6 +163,9 @@ public class ServiceManager {
                 .orElseThrow(() -> new NotFoundException("Promotion not found")));
 
         Service savedService = serviceRepository.save(service);
+        topServiceLeaderboard.invalidate();
+        invalidateServiceDetails();
+
         return new ServiceDTO(savedService);
     }
 
@@ -177,6 +180,9 @@ public class ServiceManager {
         service.setPromotion(null);
 
         Service savedService = serviceRepository.save(service);
+        topServiceLeaderboard.invalidate();
+        invalidateServiceDetails();
+
         return new ServiceDTO(savedService);
     }
 
@@ -187,6 +193,8 @@ public class ServiceManager {
         service.setStatus(Service.ServiceStatus.UNAVAILABLE);
         service.setDeleteAt(LocalDateTime.now());
         serviceRepository.save(service);
+        topServiceLeaderboard.invalidate();
+        invalidateServiceDetails();
         return new ServiceDTO(service);
     }
 
@@ -195,22 +203,15 @@ public class ServiceManager {
             throw new BadRequestException("Top must be greater than 0");
         }
 
-        Pageable pageable = PageRequest.of(0, top);
-        List<Object[]> topServices = paymentRepository.findTopServices(pageable);
-        List<TopServiceDTO> serviceDTOs = new ArrayList<>();
-
-        for (Object[] row : topServices) {
-            UUID serviceId = (UUID) row[0];
-            long usageCount = ((Number) row[1]).longValue();
-
-            Service service = serviceRepository.findByServiceId(serviceId)
-                    .orElseThrow(() -> new NotFoundException("Service not found"));
-
-            TopServiceDTO serviceDTO = new TopServiceDTO(service, usageCount);
-
-            serviceDTOs.add(serviceDTO);
-        }
+        return topServiceLeaderboard.getTop(top);
+    }
 
-        return serviceDTOs;
+    // Schedules and feedbacks show the service name as well
+    private void invalidateServiceDetails() {
+        catalogCache.invalidate(
+                CatalogCache.Region.SERVICES,
+                CatalogCache.Region.SCHEDULES,
+                CatalogCache.Region.FEEDBACKS
+        );
     }
 }
@@ -2,26 +2,140 @@ package com.example.cliniccare.service;
 
 import com.example.cliniccare.entity.TokenBlacklist;
 import com.example.cliniccare.repository.TokenBlacklistRepository;
+import com.example.cliniccare.utils.BloomFilter;
+import com.example.cliniccare.utils.TokenHasher;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TokenBlacklistService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
+
     private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final JwtService jwtService;
+
+    @Value("${jwt.blacklist.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${jwt.blacklist.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // token hash -> expiration of the revoked token (epoch millis)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter = new BloomFilter(1, 0.01);
+    private volatile LocalDateTime lastSyncAt = LocalDateTime.now();
 
     @Autowired
-    public TokenBlacklistService(TokenBlacklistRepository tokenBlacklistRepository) {
+    public TokenBlacklistService(TokenBlacklistRepository tokenBlacklistRepository, JwtService jwtService) {
         this.tokenBlacklistRepository = tokenBlacklistRepository;
+        this.jwtService = jwtService;
+    }
+
+    // Runs before the bean is handed to the filter chain, so no request sees the empty filter
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenBlacklist> activeTokens = tokenBlacklistRepository.findAllByExpireAtIsNullOrExpireAtAfter(now);
+
+        activeTokens.forEach(this::remember);
+        rebuildBloomFilter();
+        lastSyncAt = now;
+
+        logger.info("Loaded {} blacklisted tokens", revokedTokens.size());
     }
 
     public void blacklistToken(String token) {
         if (token != null && !token.isEmpty()) {
             TokenBlacklist tokenBlacklist = new TokenBlacklist();
             tokenBlacklist.setToken(token);
+            tokenBlacklist.setTokenHash(TokenHasher.toHex(TokenHasher.digest(token)));
             tokenBlacklist.setInvalidatedAt(LocalDateTime.now());
+            tokenBlacklist.setExpireAt(getExpiration(token));
             tokenBlacklistRepository.save(tokenBlacklist);
+
+            remember(tokenBlacklist);
+        }
+    }
+
+    public boolean isBlacklisted(String token) {
+        byte[] digest = TokenHasher.digest(token);
+
+        if (!bloomFilter.mightContain(digest)) {
+            return false;
+        }
+
+        String tokenHash = TokenHasher.toHex(digest);
+        Long expireAt = revokedTokens.get(tokenHash);
+
+        if (expireAt != null) {
+            return expireAt > System.currentTimeMillis();
+        }
+
+        return tokenBlacklistRepository.existsByTokenHash(tokenHash);
+    }
+
+    // Picks up tokens revoked by other instances and drops entries whose JWT has already expired
+    @Scheduled(fixedDelayString = "${jwt.blacklist.sync-interval:60000}")
+    public void synchronize() {
+        LocalDateTime now = LocalDateTime.now();
+        tokenBlacklistRepository.findAllByInvalidatedAtAfter(lastSyncAt).forEach(this::remember);
+        lastSyncAt = now;
+
+        long currentTime = System.currentTimeMillis();
+        if (revokedTokens.values().removeIf(expireAt -> expireAt <= currentTime)) {
+            rebuildBloomFilter();
+        }
+    }
+
+    private void remember(TokenBlacklist tokenBlacklist) {
+        String tokenHash = tokenBlacklist.getTokenHash() != null
+                ? tokenBlacklist.getTokenHash()
+                : TokenHasher.toHex(TokenHasher.digest(tokenBlacklist.getToken()));
+
+        LocalDateTime expireAt = tokenBlacklist.getExpireAt() != null
+                ? tokenBlacklist.getExpireAt()
+                : getExpiration(tokenBlacklist.getToken());
+
+        if (expireAt == null) {
+            return;
+        }
+
+        revokedTokens.put(tokenHash, expireAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        bloomFilter.put(TokenHasher.fromHex(tokenHash));
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, revokedTokens.size()), falsePositiveRate);
+        revokedTokens.keySet().forEach(tokenHash -> rebuilt.put(TokenHasher.fromHex(tokenHash)));
+        bloomFilter = rebuilt;
+
+        // Tokens revoked while the new filter was being filled may only be in the old one
+        revokedTokens.keySet().forEach(tokenHash -> rebuilt.put(TokenHasher.fromHex(tokenHash)));
+    }
+
+    private LocalDateTime getExpiration(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        try {
+            Date expiration = jwtService.extractExpiration(token);
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(expiration.getTime()), ZoneId.systemDefault());
+        } catch (Exception e) {
+            return null;
         }
     }
 }
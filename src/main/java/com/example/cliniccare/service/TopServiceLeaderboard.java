@@ -0,0 +1,125 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.dto.TopServiceDTO;
+import com.example.cliniccare.entity.Payment;
+import com.example.cliniccare.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Paid usage count of every service, loaded once and bumped in memory on each PAID payment.
+// Snapshots are never mutated after being published so callers can serialize them safely, and
+// readers never wait: a reload runs outside any lock and is published with a single swap.
+@Service
+public class TopServiceLeaderboard {
+    private final PaymentRepository paymentRepository;
+
+    private record Snapshot(Map<UUID, TopServiceDTO> entries, List<TopServiceDTO> ranking, long loadedAt) {
+        Snapshot(Map<UUID, TopServiceDTO> entries, long loadedAt) {
+            this(entries, entries.values().stream()
+                    .sorted(Comparator.comparingLong(TopServiceDTO::getCount).reversed())
+                    .toList(), loadedAt);
+        }
+    }
+
+    // null until the first read and after invalidate()
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    // Reload now and then to pick up payments made on other instances
+    @Value("${services.leaderboard-ttl:300000}")
+    private long ttl;
+
+    @Autowired
+    public TopServiceLeaderboard(PaymentRepository paymentRepository) {
+        this.paymentRepository = paymentRepository;
+    }
+
+    public List<TopServiceDTO> getTop(int top) {
+        Snapshot current = snapshot.get();
+        if (current == null || System.currentTimeMillis() - current.loadedAt() > ttl) {
+            current = reload(current);
+        }
+
+        List<TopServiceDTO> ranking = current.ranking();
+        return ranking.subList(0, Math.min(top, ranking.size()));
+    }
+
+    public void recordPaid(Payment payment) {
+        // Read the lazy service and promotion while the transaction is still open
+        TopServiceDTO paid = new TopServiceDTO(payment.getService(), 1);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(paid);
+                }
+            });
+        } else {
+            increment(paid);
+        }
+    }
+
+    // Service or promotion details changed, rebuild on the next read
+    public void invalidate() {
+        snapshot.set(null);
+    }
+
+    private void increment(TopServiceDTO paid) {
+        snapshot.updateAndGet(current -> {
+            if (current == null) {
+                return null;
+            }
+
+            Map<UUID, TopServiceDTO> entries = new HashMap<>(current.entries());
+            TopServiceDTO existing = entries.get(paid.getServiceId());
+            entries.put(paid.getServiceId(), existing != null
+                    ? new TopServiceDTO(
+                            existing.getServiceId(),
+                            existing.getName(),
+                            existing.getImage(),
+                            existing.getPrice(),
+                            existing.getDiscount(),
+                            existing.getCount() + 1
+                    )
+                    : paid);
+
+            return new Snapshot(entries, current.loadedAt());
+        });
+    }
+
+    // While one caller reloads a stale snapshot the others keep serving it. The result is only published
+    // if nothing changed meanwhile, an increment or invalidate() in between makes the next read reload again
+    private Snapshot reload(Snapshot stale) {
+        boolean owner = reloading.compareAndSet(false, true);
+        if (!owner && stale != null) {
+            return stale;
+        }
+
+        try {
+            Map<UUID, TopServiceDTO> entries = new HashMap<>();
+            paymentRepository.findTopServices(Pageable.unpaged())
+                    .forEach(service -> entries.put(service.getServiceId(), service));
+
+            Snapshot loaded = new Snapshot(entries, System.currentTimeMillis());
+            snapshot.compareAndSet(stale, loaded);
+            return loaded;
+        } finally {
+            if (owner) {
+                reloading.set(false);
+            }
+        }
+    }
+}
@@ -4,8 +4,10 @@ import com.example.cliniccare.dto.UserDTO;
 import com.example.cliniccare.dto.UserFormDTO;
 import com.example.cliniccare.exception.BadRequestException;
 import com.example.cliniccare.exception.NotFoundException;
+import com.example.cliniccare.entity.DailyStat;
 import com.example.cliniccare.entity.DoctorProfile;
 import com.example.cliniccare.entity.Role;
+import com.example.cliniccare.entity.SearchDocument;
 import com.example.cliniccare.entity.User;
 import com.example.cliniccare.dto.PaginationDTO;
 import com.example.cliniccare.repository.DoctorProfileRepository;
@@ -14,10 +16,12 @@ import com.example.cliniccare.repository.UserRepository;
 import com.example.cliniccare.response.PaginationResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -33,6 +37,10 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final FirebaseStorageService firebaseStorageService;
     private final PaginationService paginationService;
+    private final SearchService searchService;
+    private final UserSessionEpochService userSessionEpochService;
+    private final DailyStatsService dailyStatsService;
+    private final CatalogCache catalogCache;
 
     @Autowired
     public UserService(
@@ -41,7 +49,11 @@ public class UserService {
             DoctorProfileRepository doctorProfileRepository,
             PasswordEncoder passwordEncoder,
             FirebaseStorageService firebaseStorageService,
-            PaginationService paginationService
+            PaginationService paginationService,
+            SearchService searchService,
+            UserSessionEpochService userSessionEpochService,
+            DailyStatsService dailyStatsService,
+            CatalogCache catalogCache
     ) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
@@ -49,13 +61,27 @@ public class UserService {
         this.passwordEncoder = passwordEncoder;
         this.firebaseStorageService = firebaseStorageService;
         this.paginationService = paginationService;
+        this.searchService = searchService;
+        this.userSessionEpochService = userSessionEpochService;
+        this.dailyStatsService = dailyStatsService;
+        this.catalogCache = catalogCache;
     }
 
-    public List<UserDTO> getAllPatient() {
-        List<User> patients = userRepository.findAllByDeleteAtIsNullAndRole_Name("User");
-        return patients.stream().map(UserDTO::new).toList();
+    public ListStreamService.Source<User, UserDTO> getAllPatient() {
+        return new ListStreamService.Source<>(
+                userRepository,
+                (root, query, cb) -> cb.and(
+                        cb.isNull(root.get("deleteAt")),
+                        cb.equal(root.get("role").get("name"), "User")
+                ),
+                Sort.Order.desc("createAt"),
+                "userId",
+                UserDTO::new,
+                List.of(User.class, Role.class, DoctorProfile.class)
+        );
     }
 
+    @Transactional(readOnly = true)
     public PaginationResponse<List<UserDTO>> getUsers(
             PaginationDTO paginationQuery,
             String search,
@@ -63,13 +89,6 @@ public class UserService {
     ) {
         Pageable pageable = paginationService.getPageable(paginationQuery);
 
-        List<String> searchParams = new ArrayList<>();
-        if (StringUtils.isNotEmpty(search)) {
-            searchParams.add("name");
-            searchParams.add("phone");
-            searchParams.add("email");
-        }
-
         List<String> roleParams = new ArrayList<>();
         if (role != null) {
             if (!roleRepository.existsById(role)) {
@@ -79,26 +98,23 @@ public class UserService {
             roleParams.add("role_id");
         }
 
-        Page<User> users = userRepository.findByDeleteAtIsNullAndSearchParamsAndRoleParams(
-                searchParams, roleParams, search, role, pageable
-        );
+        Specification<User> spec = UserRepository.deleteAtIsNullAndRoleParams(roleParams, role);
+        if (StringUtils.isNotEmpty(search)) {
+            spec = spec.and(searchService.matches(SearchDocument.EntityType.USER, "userId", search));
+        }
 
-        int totalPages = users.getTotalPages();
-        long totalElements = users.getTotalElements();
-        int take = users.getNumberOfElements();
-
-        return new PaginationResponse<>(
-                true,
-                "Get users successfully",
-                users.map(UserDTO::new).getContent(),
-                paginationQuery.page,
-                paginationQuery.size,
-                take,
-                totalPages,
-                totalElements
+        return paginationService.getPage(
+                userRepository,
+                spec,
+                pageable,
+                paginationQuery,
+                "userId",
+                UserDTO::new,
+                "Get users successfully"
         );
     }
 
+    @Transactional(readOnly = true)
     public UserDTO getUserById(UUID id) {
         User user = userRepository.findByUserIdAndDeleteAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("User not found"));
@@ -106,6 +122,7 @@ public class UserService {
         return new UserDTO(user);
     }
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getUserByRole(String role) {
         List<User> users = userRepository.findByRoleNameAndDeleteAtIsNull(role);
         List<UserDTO> userDTOS = new ArrayList<>();
@@ -115,6 +132,7 @@ public class UserService {
         return userDTOS;
     }
 
+    @Transactional
     public UserDTO createUser(UserFormDTO userDTO) throws IOException {
         if (userRepository.existsByEmailAndDeleteAtIsNull(userDTO.getEmail())) {
             throw new BadRequestException("Email already exists");
@@ -136,6 +154,9 @@ public class UserService {
 
         User savedUser = userRepository.save(user);
 
+        if (role.getName().equalsIgnoreCase("user")) {
+            dailyStatsService.recordNewPatient(savedUser.getCreateAt());
+        }
         if (role.getName().equalsIgnoreCase("doctor")) {
             DoctorProfile doctor = new DoctorProfile();
 
@@ -148,12 +169,14 @@ public class UserService {
             doctorProfileRepository.save(doctor);
 
             savedUser.setDoctorProfile(doctor);
+            catalogCache.invalidate(CatalogCache.Region.DOCTORS);
         }
 
 
         return new UserDTO(savedUser);
     }
 
+    @Transactional
     public UserDTO updateUser(UUID id, UserFormDTO userDTO) throws IOException {
         User user = userRepository.findByUserIdAndDeleteAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("User not found"));
@@ -167,6 +190,7 @@ public class UserService {
         if (userDTO.getImage() != null && !userDTO.getImage().isEmpty()) {
             user.setImage(firebaseStorageService.updateImage(userDTO.getImage(), user.getImage()));
         }
+        boolean roleChanged = false;
         if (userDTO.getRoleId() != null) {
             Role role = roleRepository.findById(userDTO.getRoleId())
                     .orElseThrow(() -> new NotFoundException("Role not found"));
@@ -184,13 +208,21 @@ public class UserService {
                 throw new BadRequestException("Cannot change role to user");
             }
 
+            roleChanged = !role.getRoleId().equals(user.getRole().getRoleId());
             user.setRole(role);
         }
 
         User savedUser = userRepository.save(user);
+
+        if (roleChanged) {
+            userSessionEpochService.invalidate(savedUser.getUserId());
+        }
+        invalidateUserDetails();
+
         return new UserDTO(savedUser);
     }
 
+    @Transactional
     public void deleteUser(UUID id) {
         User user = userRepository.findByUserIdAndDeleteAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("User not found"));
@@ -207,9 +239,25 @@ public class UserService {
             doctorProfileRepository.save(doctor);
         }
 
+        if (user.getRole().getName().equals("User") && user.getDoctorProfile() == null && user.getCreateAt() != null) {
+            dailyStatsService.recordDeletedPatient(user.getCreateAt());
+        }
+
         user.setEmail(null);
         user.setDeleteAt(LocalDateTime.now());
         userRepository.save(user);
+
+        userSessionEpochService.invalidate(user.getUserId());
+        invalidateUserDetails();
+    }
+
+    // Doctors, schedules and feedbacks all show the names and images of the users behind them
+    private void invalidateUserDetails() {
+        catalogCache.invalidate(
+                CatalogCache.Region.DOCTORS,
+                CatalogCache.Region.SCHEDULES,
+                CatalogCache.Region.FEEDBACKS
+        );
     }
 
     public long getUserRegistrationCountForMonth(Integer month, Integer year) {
@@ -220,6 +268,16 @@ public class UserService {
             throw new BadRequestException("Invalid month. Please provide a value between 1 and 12.");
         }
 
-        return userRepository.countUsersWithUserRoleOnlyByMonth(month, year);
+        return dailyStatsService.getMonthTotals(year, month).getNewPatients();
+    }
+
+    public List<Long> getUserRegistrationCountsForYear(Integer year) {
+        if (year == null) {
+            throw new BadRequestException("Please provide year");
+        }
+
+        return dailyStatsService.getMonthlyTotals(year).stream()
+                .map(DailyStat::getNewPatients)
+                .toList();
     }
 }
@@ -0,0 +1,91 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.entity.UserSessionEpoch;
+import com.example.cliniccare.repository.UserSessionEpochRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Epochs are stored in user_session_epochs and mirrored in memory, the same way as the token blacklist:
+// loaded on startup and synchronized periodically, so revocations survive restarts and reach every instance
+@Service
+public class UserSessionEpochService {
+    private static final Logger logger = LoggerFactory.getLogger(UserSessionEpochService.class);
+
+    private final UserSessionEpochRepository userSessionEpochRepository;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    // userId -> time (epoch millis) before which every issued access token is rejected
+    private final Map<UUID, Long> epochs = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSyncAt = LocalDateTime.now();
+
+    @Autowired
+    public UserSessionEpochService(UserSessionEpochRepository userSessionEpochRepository) {
+        this.userSessionEpochRepository = userSessionEpochRepository;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        userSessionEpochRepository
+                .findAllByInvalidatedAtAfter(now.minus(jwtExpiration, ChronoUnit.MILLIS))
+                .forEach(this::remember);
+        lastSyncAt = now;
+
+        logger.info("Loaded {} session epochs", epochs.size());
+    }
+
+    // The JWT iat claim only has second precision, so the epoch is cut to the same precision: a token
+    // issued right after the invalidation, within the same second, has to stay valid (e.g. re-login).
+    // Joins the caller's transaction, so a rolled back role change or delete leaves no epoch behind
+    public void invalidate(UUID userId) {
+        UserSessionEpoch epoch = new UserSessionEpoch();
+        epoch.setUserId(userId);
+        epoch.setInvalidatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        userSessionEpochRepository.save(epoch);
+
+        remember(epoch);
+    }
+
+    public boolean isInvalidated(UUID userId, Date issuedAt) {
+        Long epoch = epochs.get(userId);
+        return epoch != null && (issuedAt == null || issuedAt.getTime() < epoch);
+    }
+
+    // Picks up epochs written by other instances. Stored times are cut to whole seconds,
+    // so the window reaches one second back to catch rows written during the last sync
+    @Scheduled(fixedDelayString = "${jwt.epoch-sync-interval:60000}")
+    public void synchronize() {
+        LocalDateTime now = LocalDateTime.now();
+        userSessionEpochRepository.findAllByInvalidatedAtAfter(lastSyncAt.minusSeconds(1)).forEach(this::remember);
+        lastSyncAt = now;
+    }
+
+    // Once every token issued before an epoch has expired, the epoch is no longer needed
+    @Scheduled(fixedDelayString = "${jwt.epoch-cleanup-interval:300000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - jwtExpiration;
+        epochs.values().removeIf(epoch -> epoch < cutoff);
+
+        userSessionEpochRepository.deleteAllInvalidatedBefore(LocalDateTime.now().minus(jwtExpiration, ChronoUnit.MILLIS));
+    }
+
+    private void remember(UserSessionEpoch epoch) {
+        long invalidatedAt = epoch.getInvalidatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        epochs.merge(epoch.getUserId(), invalidatedAt, Math::max);
+    }
+}
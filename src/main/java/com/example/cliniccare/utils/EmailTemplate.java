@@ -0,0 +1,98 @@
+package com.example.cliniccare.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Template compiled once into literal/placeholder segments, placeholders look like {name}
+public class EmailTemplate {
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    // literals[i] is followed by placeholder keys[i], the last literal has no placeholder
+    private final String[] literals;
+    private final String[] keys;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, String[] keys) {
+        this.literals = literals;
+        this.keys = keys;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int literalStart = 0;
+        int i = 0;
+
+        while (i < source.length()) {
+            if (source.charAt(i) == '{') {
+                int end = i + 1;
+                while (end < source.length() && isKeyChar(source.charAt(end))) {
+                    end++;
+                }
+
+                // CSS blocks such as "body {" are not placeholders
+                if (end > i + 1 && end < source.length() && source.charAt(end) == '}') {
+                    literals.add(source.substring(literalStart, i));
+                    keys.add(source.substring(i + 1, end));
+                    literalStart = end + 1;
+                    i = end + 1;
+                    continue;
+                }
+            }
+            i++;
+        }
+        literals.add(source.substring(literalStart));
+
+        return new EmailTemplate(literals.toArray(new String[0]), keys.toArray(new String[0]));
+    }
+
+    // Single pass over the segments, values are HTML escaped, unknown keys are kept as is
+    public String render(Map<String, ?> values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(literalLength + keys.length * 32);
+
+        for (int i = 0; i < keys.length; i++) {
+            buffer.append(literals[i]);
+
+            Object value = values.get(keys[i]);
+            if (value != null) {
+                appendEscaped(buffer, value.toString());
+            } else {
+                buffer.append('{').append(keys[i]).append('}');
+            }
+        }
+        buffer.append(literals[literals.length - 1]);
+
+        String result = buffer.toString();
+        if (buffer.capacity() > 65536) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    private static boolean isKeyChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static void appendEscaped(StringBuilder buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> buffer.append("&amp;");
+                case '<' -> buffer.append("&lt;");
+                case '>' -> buffer.append("&gt;");
+                case '"' -> buffer.append("&quot;");
+                case '\'' -> buffer.append("&#39;");
+                default -> buffer.append(c);
+            }
+        }
+    }
+}
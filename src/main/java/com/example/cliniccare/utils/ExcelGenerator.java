@@ -1,37 +1,57 @@
 package com.example.cliniccare.utils;
 
 import com.example.cliniccare.dto.MedicalRecordDTO;
-import com.example.cliniccare.entity.MedicalRecord;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFCell;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
 
-public class ExcelGenerator {
-    private List<MedicalRecordDTO> medicalRecordList;
-    private XSSFWorkbook workbook;
-    private XSSFSheet sheet;
+// Streams the medical records report: only the last ROW_WINDOW rows stay on the heap,
+// older ones are flushed to a compressed temp file until the workbook is written out
+public class ExcelGenerator implements Closeable {
+    public static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final int ROW_WINDOW = 100;
+    // Column widths come from the first rows, autoSizeColumn would need every row in memory
+    private static final int WIDTH_SAMPLE_ROWS = 1000;
+    private static final int MAX_COLUMN_CHARS = 60;
+    private static final String DATE_FORMAT = "dd-MM-yyyy HH:mm:ss";
 
     private static final String[] HEADERS = {
            "Id", "Patient", "Doctor", "Service", "Date",
             "Description"
     };
 
-    public ExcelGenerator(List<MedicalRecordDTO> medicalRecordList) {
-        this.medicalRecordList = medicalRecordList;
-        this.workbook = new XSSFWorkbook();
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final CellStyle dataStyle;
+    private final CellStyle dateStyle;
+    private final int[] columnChars = new int[HEADERS.length];
+    private int recordCount;
+
+    public ExcelGenerator() {
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet("Medical Records");
+        this.dataStyle = createDataStyle();
+        this.dateStyle = createDateStyle();
+
+        writeTitleRow();
+        writeHeaderRow();
     }
 
-    private XSSFCellStyle createTitleStyle() {
-        XSSFCellStyle style = workbook.createCellStyle();
-        XSSFFont font = workbook.createFont();
+    private CellStyle createTitleStyle() {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
 
         font.setBold(true);
-        font.setFontHeight(16);
+        font.setFontHeightInPoints((short) 16);
         font.setColor(IndexedColors.BLACK.getIndex());
 
         style.setFont(font);
@@ -42,12 +62,10 @@ public class ExcelGenerator {
     }
 
     private void writeTitleRow() {
-        sheet = workbook.createSheet("Medical Records");
-        XSSFRow titleRow = sheet.createRow(0);
-        XSSFCell titleCell = titleRow.createCell(0);
-        XSSFCellStyle titleStyle = createTitleStyle();
+        SXSSFRow titleRow = sheet.createRow(0);
+        SXSSFCell titleCell = titleRow.createCell(0);
 
-        titleCell.setCellStyle(titleStyle);
+        titleCell.setCellStyle(createTitleStyle());
         titleCell.setCellValue("Medical Records Report");
 
         sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, HEADERS.length - 1));
@@ -55,12 +73,12 @@ public class ExcelGenerator {
         titleRow.setHeight((short) 600);
     }
 
-    private XSSFCellStyle createHeaderStyle() {
-        XSSFCellStyle style = workbook.createCellStyle();
-        XSSFFont font = workbook.createFont();
+    private CellStyle createHeaderStyle() {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
 
         font.setBold(true);
-        font.setFontHeight(12);
+        font.setFontHeightInPoints((short) 12);
         font.setColor(IndexedColors.WHITE.getIndex());
 
         style.setFont(font);
@@ -75,24 +93,22 @@ public class ExcelGenerator {
         return style;
     }
 
-
     private void writeHeaderRow() {
-        XSSFRow row = sheet.createRow(1); // Adjusted to row 1 (after title row)
-        XSSFCellStyle headerStyle = createHeaderStyle();
+        SXSSFRow row = sheet.createRow(1); // Adjusted to row 1 (after title row)
+        CellStyle headerStyle = createHeaderStyle();
 
         for (int i = 0; i < HEADERS.length; i++) {
-            XSSFCell cell = row.createCell(i);
+            SXSSFCell cell = row.createCell(i);
             cell.setCellStyle(headerStyle);
             cell.setCellValue(HEADERS[i]);
-            sheet.autoSizeColumn(i);
+            sampleWidth(i, HEADERS[i]);
         }
 
         row.setHeight((short) 500);
     }
 
-
-    private XSSFCellStyle createDataStyle() {
-        XSSFCellStyle style = workbook.createCellStyle();
+    private CellStyle createDataStyle() {
+        CellStyle style = workbook.createCellStyle();
         style.setBorderTop(BorderStyle.THIN);
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderLeft(BorderStyle.THIN);
@@ -103,8 +119,8 @@ public class ExcelGenerator {
         return style;
     }
 
-    private XSSFCellStyle createDateStyle() {
-        XSSFCellStyle style = workbook.createCellStyle();
+    private CellStyle createDateStyle() {
+        CellStyle style = workbook.createCellStyle();
         style.setBorderTop(BorderStyle.THIN);
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderLeft(BorderStyle.THIN);
@@ -113,63 +129,65 @@ public class ExcelGenerator {
         style.setVerticalAlignment(VerticalAlignment.CENTER);
 
         CreationHelper creationHelper = workbook.getCreationHelper();
-        style.setDataFormat(creationHelper.createDataFormat().getFormat("dd-MM-yyyy HH:mm:ss"));
+        style.setDataFormat(creationHelper.createDataFormat().getFormat(DATE_FORMAT));
 
         return style;
     }
 
-    private void writeDataRows() {
-        XSSFCellStyle dataStyle = createDataStyle();
-        XSSFCellStyle dateStyle = createDateStyle();
-        int rowNum = 2;
+    public void writeRow(MedicalRecordDTO record) {
+        SXSSFRow row = sheet.createRow(recordCount + 2);
+        recordCount++;
 
-        for (int i = 0; i < medicalRecordList.size(); i++) {
-            MedicalRecordDTO record = medicalRecordList.get(i);
-            XSSFRow row = sheet.createRow(rowNum++);
+        row.setHeight((short) 500);
 
-            row.setHeight((short) 500);
+        SXSSFCell sttCell = row.createCell(0);
+        sttCell.setCellValue(recordCount);
+        sttCell.setCellStyle(dataStyle);
 
-            XSSFCell sttCell = row.createCell(0);
-            sttCell.setCellValue(i + 1);
-            sttCell.setCellStyle(dataStyle);
+        writeTextCell(row, 1, record.getPatientName());
+        writeTextCell(row, 2, record.getDoctorName());
+        writeTextCell(row, 3, record.getServiceName());
 
-            XSSFCell patientCell = row.createCell(1);
-            patientCell.setCellValue(record.getPatientName());
-            patientCell.setCellStyle(dataStyle);
+        SXSSFCell dateCell = row.createCell(4);
+        dateCell.setCellValue(record.getDate());
+        dateCell.setCellStyle(dateStyle);
 
-            XSSFCell doctorCell = row.createCell(2);
-            doctorCell.setCellValue(record.getDoctorName());
-            doctorCell.setCellStyle(dataStyle);
+        writeTextCell(row, 5, record.getDescription());
 
-            XSSFCell serviceCell = row.createCell(3);
-            serviceCell.setCellValue(record.getServiceName());
-            serviceCell.setCellStyle(dataStyle);
+        if (recordCount <= WIDTH_SAMPLE_ROWS) {
+            sampleWidth(0, String.valueOf(recordCount));
+            sampleWidth(4, DATE_FORMAT);
+        }
+    }
 
-            XSSFCell dateCell = row.createCell(4);
-            dateCell.setCellValue(record.getDate());
-            dateCell.setCellStyle(dateStyle);
+    private void writeTextCell(SXSSFRow row, int column, String value) {
+        SXSSFCell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(dataStyle);
 
-            XSSFCell descriptionCell = row.createCell(5);
-            descriptionCell.setCellValue(record.getDescription());
-            descriptionCell.setCellStyle(dataStyle);
+        if (recordCount <= WIDTH_SAMPLE_ROWS) {
+            sampleWidth(column, value);
         }
+    }
 
-        for (int i = 0; i < HEADERS.length; i++) {
-            sheet.autoSizeColumn(i);
-            sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000);
+    private void sampleWidth(int column, String value) {
+        if (value != null) {
+            columnChars[column] = Math.min(MAX_COLUMN_CHARS, Math.max(columnChars[column], value.length()));
         }
     }
 
-    public ByteArrayInputStream generateExcelFile() throws IOException {
-        writeTitleRow();
-        writeHeaderRow();
-        writeDataRows();
-
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            workbook.write(outputStream);
-            return new ByteArrayInputStream(outputStream.toByteArray());
-        } finally {
-            workbook.close();
+    public void write(OutputStream outputStream) throws IOException {
+        for (int i = 0; i < HEADERS.length; i++) {
+            sheet.setColumnWidth(i, (columnChars[i] + 1) * 256 + 1000);
         }
+
+        workbook.write(outputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Deletes the temp file backing the flushed rows
+        workbook.dispose();
+        workbook.close();
     }
 }
@@ -0,0 +1,180 @@
+package com.example.cliniccare.utils;
+
+import com.example.cliniccare.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+// Writes rows one at a time as CSV or newline-delimited JSON. The target is opened on the first row,
+// so a query that fails before producing anything can still be answered with a normal error response
+public class ExportWriter<D> {
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String format) {
+            try {
+                return Format.valueOf(format.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid export format (csv or ndjson)");
+            }
+        }
+    }
+
+    public record Column<D>(String header, Function<D, ?> value) {
+    }
+
+    public interface Target {
+        OutputStream open() throws IOException;
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final Format format;
+    private final List<Column<D>> columns;
+    private final ObjectWriter rowWriter;
+    private final Target target;
+
+    private Writer csvWriter;
+    private JsonGenerator jsonGenerator;
+    private long rowCount;
+
+    public ExportWriter(Format format, List<Column<D>> columns, ObjectMapper objectMapper, Target target) {
+        this.format = format;
+        this.columns = columns;
+        // Flushing after every row would push one tiny chunk per row through gzip and the socket
+        this.rowWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.target = target;
+    }
+
+    // Sets the download headers and gzips the body when the client accepts it
+    public static Target toResponse(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Format format,
+            String fileName
+    ) {
+        return () -> {
+            response.setContentType(format.contentType);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + fileName + "." + format.extension + "\"");
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                return new GZIPOutputStream(response.getOutputStream(), BUFFER_SIZE);
+            }
+            return response.getOutputStream();
+        };
+    }
+
+    public void write(D row) {
+        try {
+            open();
+            rowCount++;
+
+            if (format == Format.NDJSON) {
+                rowWriter.writeValue(jsonGenerator, row);
+                return;
+            }
+
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    csvWriter.write(',');
+                }
+                writeCsvValue(columns.get(i).value().apply(row));
+            }
+            csvWriter.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Completes the file, including the gzip trailer; only call once every row is written
+    public void finish() throws IOException {
+        open();
+
+        if (format == Format.NDJSON) {
+            if (rowCount > 0) {
+                jsonGenerator.writeRaw('\n');
+            }
+            jsonGenerator.close();
+        } else {
+            csvWriter.close();
+        }
+    }
+
+    private void open() throws IOException {
+        if (csvWriter != null || jsonGenerator != null) {
+            return;
+        }
+
+        OutputStream outputStream = target.open();
+
+        if (format == Format.NDJSON) {
+            jsonGenerator = rowWriter.getFactory().createGenerator(outputStream);
+            return;
+        }
+
+        csvWriter = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                csvWriter.write(',');
+            }
+            writeCsvValue(columns.get(i).header());
+        }
+        csvWriter.write("\r\n");
+    }
+
+    // RFC 4180 quoting. Text a spreadsheet would run as a formula (patient-supplied names, reasons, ...)
+    // is prefixed with ' and quoted, per the OWASP CSV injection guidance; numbers are left as they are
+    private void writeCsvValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        String text = value.toString();
+        boolean formula = value instanceof CharSequence
+                && !text.isEmpty()
+                && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0;
+
+        if (formula) {
+            text = "'" + text;
+        } else if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            csvWriter.write(text);
+            return;
+        }
+
+        csvWriter.write('"');
+        csvWriter.write(text.replace("\"", "\"\""));
+        csvWriter.write('"');
+    }
+}
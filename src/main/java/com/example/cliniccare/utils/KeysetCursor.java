@@ -0,0 +1,63 @@
+package com.example.cliniccare.utils;
+
+import com.example.cliniccare.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.UUID;
+
+// Opaque cursor for keyset pagination: the sort key, its direction and the
+// (sort value, id) of the last row of the previous page
+public record KeysetCursor(String sortKey, Sort.Direction direction, String id, String value) {
+    public String encode() {
+        String raw = sortKey + "\n" + direction + "\n" + id + "\n" + (value == null ? "0" : "1" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+
+            return new KeysetCursor(
+                    parts[0],
+                    Sort.Direction.valueOf(parts[1]),
+                    parts[2],
+                    parts[3].startsWith("1") ? parts[3].substring(1) : null
+            );
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Comparable<?> parse(String value, Class<?> type) {
+        try {
+            if (type == String.class) return value;
+            if (type == UUID.class) return UUID.fromString(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == LocalTime.class) return LocalTime.parse(value);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(value);
+            if (type == Long.class || type == long.class) return Long.valueOf(value);
+            if (type == Double.class || type == double.class) return Double.valueOf(value);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(value);
+            if (type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, value);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+
+        throw new BadRequestException("Cursor pagination is not supported for this sort key");
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.cliniccare.utils;
+
+import com.example.cliniccare.entity.TimeSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SlotGenerator {
+    private static final int STEP_MINUTES = 15;
+
+    // Minutes from the start of a day, end exclusive; may start before 0 or end after 24:00
+    public record Interval(int start, int end) {}
+
+    // busyIntervals must be sorted by start
+    public static List<TimeSlot> getOptimalTimeSlots(
+            LocalTime workingStart,
+            LocalTime workingEnd,
+            List<Interval> busyIntervals,
+            int duration,
+            int requiredSlots
+    ) {
+        List<Interval> busy = merge(busyIntervals);
+        List<TimeSlot> result = new ArrayList<>();
+
+        int current = workingStart.toSecondOfDay() / 60;
+        int end = workingEnd.toSecondOfDay() / 60;
+        int index = 0;
+
+        while (current + duration < end && result.size() < requiredSlots) {
+            while (index < busy.size() && busy.get(index).end() <= current) {
+                index++;
+            }
+
+            if (index < busy.size() && busy.get(index).start() < current + duration) {
+                // Every 15-minute step before the busy interval ends would still overlap it
+                current += Math.ceilDiv(busy.get(index).end() - current, STEP_MINUTES) * STEP_MINUTES;
+            } else {
+                result.add(new TimeSlot(toLocalTime(current), toLocalTime(current + duration)));
+                current += duration + STEP_MINUTES;
+            }
+        }
+
+        return result;
+    }
+
+    private static List<Interval> merge(List<Interval> sortedIntervals) {
+        List<Interval> merged = new ArrayList<>(sortedIntervals.size());
+
+        for (Interval interval : sortedIntervals) {
+            if (!merged.isEmpty() && interval.start() <= merged.getLast().end()) {
+                Interval last = merged.removeLast();
+                merged.add(new Interval(last.start(), Math.max(last.end(), interval.end())));
+            } else {
+                merged.add(interval);
+            }
+        }
+
+        return merged;
+    }
+
+    private static LocalTime toLocalTime(int minuteOfDay) {
+        return LocalTime.ofSecondOfDay(minuteOfDay * 60L);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.cliniccare.benchmark;
+
+import com.example.cliniccare.dto.MedicalRecordDTO;
+import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.MedicalRecord;
+import com.example.cliniccare.entity.Payment;
+import com.example.cliniccare.entity.Role;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Detached entity graphs shaped like a loaded page, for benchmarks that never touch a database
+final class BenchmarkData {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private BenchmarkData() {}
+
+    static User user(int i, String roleName) {
+        Role role = new Role();
+        role.setRoleId(UUID.randomUUID());
+        role.setName(roleName);
+
+        User user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setName("User " + i);
+        user.setEmail("user" + i + "@cliniccare.com");
+        user.setPhone("0123456789");
+        user.setRole(role);
+        user.setCreateAt(START.plusMinutes(i));
+        return user;
+    }
+
+    static DoctorProfile doctor(int i) {
+        DoctorProfile doctor = new DoctorProfile();
+        doctor.setDoctorProfileId(UUID.randomUUID());
+        doctor.setSpecialty("General");
+        doctor.setUser(user(i, "Doctor"));
+        return doctor;
+    }
+
+    static Service service(int i) {
+        Service service = new Service();
+        service.setServiceId(UUID.randomUUID());
+        service.setName("Service " + i);
+        service.setPrice(100000 + i);
+        service.setStatus(Service.ServiceStatus.AVAILABLE);
+        return service;
+    }
+
+    static List<Schedule> schedules(int rows) {
+        List<Schedule> schedules = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Schedule schedule = new Schedule();
+            schedule.setScheduleId(UUID.randomUUID());
+            schedule.setDoctor(doctor(i));
+            schedule.setService(service(i));
+            schedule.setDateTime(START.plusMinutes(30L * i));
+            schedule.setDuration(30);
+            schedule.setStatus(Schedule.ScheduleStatus.BOOKED);
+            schedules.add(schedule);
+        }
+        return schedules;
+    }
+
+    static List<Appointment> appointments(int rows) {
+        List<Appointment> appointments = new ArrayList<>(rows);
+        List<Schedule> schedules = schedules(rows);
+        for (int i = 0; i < rows; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentId(UUID.randomUUID());
+            appointment.setSchedule(schedules.get(i));
+            appointment.setActiveScheduleId(schedules.get(i).getScheduleId());
+            appointment.setPatient(user(i, "User"));
+            appointment.setPatientName("Patient " + i);
+            appointment.setPatientPhone("0123456789");
+            appointment.setDate(START.plusMinutes(i));
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    static List<Payment> payments(int rows) {
+        List<Payment> payments = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Payment payment = new Payment();
+            payment.setPaymentId(UUID.randomUUID());
+            payment.setPatient(user(i, "User"));
+            payment.setService(service(i));
+            payment.setDate(START.plusMinutes(i));
+            payment.setTotalPrice(100000 + i);
+            payment.setStatus(Payment.PaymentStatus.PAID);
+            payment.setMethod(Payment.PaymentMethod.CASH);
+            payments.add(payment);
+        }
+        return payments;
+    }
+
+    static List<MedicalRecord> medicalRecords(int rows) {
+        List<MedicalRecord> medicalRecords = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            MedicalRecord medicalRecord = new MedicalRecord();
+            medicalRecord.setMedicalRecordId(UUID.randomUUID());
+            medicalRecord.setPatient(user(i, "User"));
+            medicalRecord.setDoctor(doctor(i));
+            medicalRecord.setService(service(i));
+            medicalRecord.setDescription("Follow-up visit, blood pressure normal, continue current medication " + i);
+            medicalRecord.setCreateAt(START.plusMinutes(i));
+            medicalRecords.add(medicalRecord);
+        }
+        return medicalRecords;
+    }
+
+    static List<MedicalRecordDTO> medicalRecordDTOs(int rows) {
+        return medicalRecords(rows).stream().map(MedicalRecordDTO::new).toList();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.cliniccare.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Entry point of the benchmarks Maven profile: runs the benchmarks matching the first argument
+// (a regex, all of this package by default) and writes the results as JSON to the second argument
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 && !args[0].isBlank() ? args[0] : BenchmarkRunner.class.getPackageName();
+        String result = args.length > 1 ? args[1] : "target/jmh-result.json";
+
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.cliniccare.benchmark;
+
+import com.example.cliniccare.dto.AppointmentDTO;
+import com.example.cliniccare.dto.MedicalRecordDTO;
+import com.example.cliniccare.dto.PaymentDTO;
+import com.example.cliniccare.dto.ScheduleDTO;
+import com.example.cliniccare.dto.UserDTO;
+import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.MedicalRecord;
+import com.example.cliniccare.entity.Payment;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mapping one page of already loaded entities to the DTOs the list endpoints return
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+    @Param({"10", "100", "1000"})
+    public int rows;
+
+    private List<Schedule> schedules;
+    private List<Appointment> appointments;
+    private List<Payment> payments;
+    private List<MedicalRecord> medicalRecords;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        schedules = BenchmarkData.schedules(rows);
+        appointments = BenchmarkData.appointments(rows);
+        payments = BenchmarkData.payments(rows);
+        medicalRecords = BenchmarkData.medicalRecords(rows);
+
+        users = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            users.add(BenchmarkData.user(i, "User"));
+        }
+    }
+
+    @Benchmark
+    public List<ScheduleDTO> schedules() {
+        return schedules.stream().map(ScheduleDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> appointments() {
+        return appointments.stream().map(AppointmentDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<PaymentDTO> payments() {
+        return payments.stream().map(PaymentDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<MedicalRecordDTO> medicalRecords() {
+        return medicalRecords.stream().map(MedicalRecordDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<UserDTO> users() {
+        return users.stream().map(UserDTO::new).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cliniccare.benchmark;
+
+import com.example.cliniccare.dto.MedicalRecordDTO;
+import com.example.cliniccare.utils.ExcelGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One medical record export per invocation; a single workbook takes seconds at 100k rows,
+// so each iteration is timed once instead of looped
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExcelGeneratorBenchmark {
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private List<MedicalRecordDTO> medicalRecords;
+
+    @Setup
+    public void setUp() {
+        medicalRecords = BenchmarkData.medicalRecordDTOs(rows);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        try (ExcelGenerator excelGenerator = new ExcelGenerator()) {
+            medicalRecords.forEach(excelGenerator::writeRow);
+            excelGenerator.write(outputStream);
+        }
+        return outputStream.count;
+    }
+
+    // Discards the workbook like a client download would, keeping only its size
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.cliniccare.benchmark;
+
+import com.example.cliniccare.entity.Role;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.entity.UserInfoDetails;
+import com.example.cliniccare.filter.JwtAuthFilter;
+import com.example.cliniccare.repository.TokenBlacklistRepository;
+import com.example.cliniccare.repository.UserSessionEpochRepository;
+import com.example.cliniccare.service.AuthService;
+import com.example.cliniccare.service.JwtService;
+import com.example.cliniccare.service.TokenBlacklistService;
+import com.example.cliniccare.service.UserSessionEpochService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+    @Param({"0", "10000"})
+    public int claimsCacheSize;
+
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    private JwtAuthFilter jwtAuthFilter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret",
+                Base64.getEncoder().encodeToString("benchmark-secret-benchmark-secret-benchmark".getBytes()));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpiration", TimeUnit.HOURS.toMillis(2));
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", claimsCacheSize);
+        jwtService.init();
+
+        Role role = new Role();
+        role.setName("User");
+
+        User user = new User();
+        user.setUserId(UUID.randomUUID());
+        user.setEmail("patient@gmail.com");
+        user.setRole(role);
+        UserInfoDetails userDetails = new UserInfoDetails(user);
+
+        // A mock keeps the benchmark independent of AuthService's constructor dependencies
+        AuthService authService = Mockito.mock(AuthService.class);
+        Mockito.when(authService.loadUserByUsername(Mockito.anyString())).thenReturn(userDetails);
+
+        TokenBlacklistService tokenBlacklistService = new TokenBlacklistService(
+                Mockito.mock(TokenBlacklistRepository.class), jwtService
+        );
+
+        jwtAuthFilter = new JwtAuthFilter(
+                jwtService,
+                authService,
+                tokenBlacklistService,
+                new UserSessionEpochService(Mockito.mock(UserSessionEpochRepository.class))
+        );
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessPrincipal", statelessPrincipal);
+        authorizationHeader = "Bearer " + jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorizationHeader);
+
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.cliniccare.benchmark;
+
+import com.example.cliniccare.entity.UserInfoDetails;
+import com.example.cliniccare.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+    // 0 parses and verifies the signature on every call, anything else serves repeats from the cache
+    @Param({"0", "10000"})
+    public int claimsCacheSize;
+
+    private JwtService jwtService;
+    private UserInfoDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret",
+                Base64.getEncoder().encodeToString("benchmark-secret-benchmark-secret-benchmark".getBytes()));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpiration", TimeUnit.HOURS.toMillis(2));
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", claimsCacheSize);
+        jwtService.init();
+
+        userDetails = new UserInfoDetails(BenchmarkData.user(0, "User"));
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public UserInfoDetails parse() {
+        Claims claims = jwtService.verifyToken(token);
+        return jwtService.extractUserDetails(claims);
+    }
+}
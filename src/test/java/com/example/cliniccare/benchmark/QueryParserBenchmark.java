@@ -0,0 +1,93 @@
+package com.example.cliniccare.benchmark;
+
+import com.example.cliniccare.entity.*;
+import com.example.cliniccare.utils.DateQueryParser;
+import com.example.cliniccare.utils.NumberQueryParser;
+import com.example.cliniccare.utils.TimeQueryParser;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Parsing a list filter and turning it into a criteria predicate, the work every filtered list
+// request does before any SQL is generated
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryParserBenchmark {
+    private static final List<Class<?>> ENTITIES = List.of(
+            Appointment.class, AppointmentView.class, DailyStat.class, DoctorProfile.class,
+            EmailVerification.class, Feedback.class, MedicalRecord.class, Notification.class,
+            OutboxMessage.class, Payment.class, Promotion.class, Role.class, Schedule.class,
+            SearchDocument.class, Service.class, TokenBlacklist.class, User.class
+    );
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder cb;
+
+    @Setup
+    public void setUp() {
+        Configuration configuration = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:benchmark;MODE=MySQL")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "none");
+        ENTITIES.forEach(configuration::addAnnotatedClass);
+
+        sessionFactory = configuration.buildSessionFactory();
+        cb = sessionFactory.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate dateRange() {
+        CriteriaQuery<Schedule> query = cb.createQuery(Schedule.class);
+        Root<Schedule> root = query.from(Schedule.class);
+
+        return new DateQueryParser<Schedule>("2024-01-01to2024-01-31", "dateTime")
+                .createDateSpecification()
+                .toPredicate(root, query, cb);
+    }
+
+    @Benchmark
+    public Predicate exactDate() {
+        CriteriaQuery<Schedule> query = cb.createQuery(Schedule.class);
+        Root<Schedule> root = query.from(Schedule.class);
+
+        return new DateQueryParser<Schedule>("2024-01-15", "dateTime")
+                .createDateSpecification()
+                .toPredicate(root, query, cb);
+    }
+
+    @Benchmark
+    public Predicate timeRange() {
+        CriteriaQuery<Schedule> query = cb.createQuery(Schedule.class);
+        Root<Schedule> root = query.from(Schedule.class);
+
+        return new TimeQueryParser<Schedule>("08:00to12:30", "dateTime")
+                .createTimeSpecification()
+                .toPredicate(root, query, cb);
+    }
+
+    @Benchmark
+    public Predicate priceRange() {
+        CriteriaQuery<Service> query = cb.createQuery(Service.class);
+        Root<Service> root = query.from(Service.class);
+
+        return new NumberQueryParser<Service>("100000to500000", "price")
+                .createPriceSpecification()
+                .toPredicate(root, query, cb);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.cliniccare.benchmark;
+
+import com.example.cliniccare.entity.TimeSlot;
+import com.example.cliniccare.utils.SlotGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The per-day slot search behind ScheduleService.autoCreateSchedules
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlotGeneratorBenchmark {
+    private static final LocalTime WORKING_START = LocalTime.of(8, 0);
+    private static final LocalTime WORKING_END = LocalTime.of(23, 0);
+
+    @Param({"0", "10", "40"})
+    public int busyIntervals;
+
+    @Param({"30"})
+    public int duration;
+
+    private List<SlotGenerator.Interval> busy;
+
+    @Setup
+    public void setUp() {
+        busy = new ArrayList<>(busyIntervals);
+        int start = WORKING_START.toSecondOfDay() / 60;
+        int end = WORKING_END.toSecondOfDay() / 60;
+        int step = busyIntervals == 0 ? 0 : (end - start) / busyIntervals;
+
+        // Short bookings spread over the day, offset so they never line up with the 15-minute grid
+        for (int i = 0; i < busyIntervals; i++) {
+            int busyStart = start + i * step + 7;
+            busy.add(new SlotGenerator.Interval(busyStart, busyStart + 20));
+        }
+    }
+
+    @Benchmark
+    public List<TimeSlot> fillDay() {
+        return SlotGenerator.getOptimalTimeSlots(WORKING_START, WORKING_END, busy, duration, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<TimeSlot> firstSlots() {
+        return SlotGenerator.getOptimalTimeSlots(WORKING_START, WORKING_END, busy, duration, 5);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.cliniccare.benchmark;
+
+import com.example.cliniccare.utils.VNPayUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VNPayUtilsBenchmark {
+    private static final String SECRET = "BENCHMARKHASHSECRETBENCHMARKHASH";
+
+    private Map<String, String> fields;
+    private String query;
+
+    // Shaped like the return parameters VNPay sends to checkVNPayResponse
+    @Setup
+    public void setUp() {
+        fields = new HashMap<>();
+        fields.put("vnp_Amount", "10000000");
+        fields.put("vnp_BankCode", "NCB");
+        fields.put("vnp_BankTranNo", "VNP14226112");
+        fields.put("vnp_CardType", "ATM");
+        fields.put("vnp_OrderInfo", "Thanh toan don hang 6f3c2d1e-9a8b-4c7d-8e6f-5a4b3c2d1e0f");
+        fields.put("vnp_PayDate", "20240101083000");
+        fields.put("vnp_ResponseCode", "00");
+        fields.put("vnp_TmnCode", "BENCHMRK");
+        fields.put("vnp_TransactionNo", "14226112");
+        fields.put("vnp_TransactionStatus", "00");
+        fields.put("vnp_TxnRef", "6f3c2d1e-9a8b-4c7d-8e6f-5a4b3c2d1e0f");
+
+        StringBuilder sb = new StringBuilder();
+        fields.keySet().stream().sorted().forEach(name ->
+                sb.append(sb.isEmpty() ? "" : "&").append(name).append('=').append(fields.get(name)));
+        query = sb.toString();
+    }
+
+    @Benchmark
+    public String hmacSHA512() {
+        return VNPayUtils.hmacSHA512(SECRET, query);
+    }
+
+    @Benchmark
+    public String hashAllFields() {
+        return VNPayUtils.hashAllFields(fields, SECRET);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.cliniccare.migration;
+
+import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.querycount.QueryCountFixtures;
+import com.example.cliniccare.querycount.QueryCountTest;
+import com.example.cliniccare.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@QueryCountTest
+@Import(SchemaMigrations.class)
+class SchemaMigrationsTest {
+    @Autowired
+    private SchemaMigrations schemaMigrations;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private QueryCountFixtures fixtures;
+
+    private User patient;
+    private DoctorProfile doctor;
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.reset();
+        patient = fixtures.patient(0);
+        doctor = fixtures.doctor(0);
+        service = fixtures.service(0);
+    }
+
+    @Test
+    void backfillGivesEachSlotToItsEarliestLiveAppointment() {
+        Schedule doubleBooked = fixtures.schedule(doctor, service, LocalDateTime.now().plusDays(1));
+        Appointment earliest = legacyAppointment(doubleBooked, LocalDateTime.now().minusDays(2));
+        Appointment later = legacyAppointment(doubleBooked, LocalDateTime.now().minusDays(1));
+
+        Schedule held = fixtures.schedule(doctor, service, LocalDateTime.now().plusDays(2));
+        Appointment legacy = legacyAppointment(held, LocalDateTime.now().minusDays(2));
+        Appointment holder = legacyAppointment(held, LocalDateTime.now().minusDays(1));
+        holder.setActiveScheduleId(held.getScheduleId());
+        appointmentRepository.save(holder);
+
+        Schedule cancelledSlot = fixtures.schedule(doctor, service, LocalDateTime.now().plusDays(3));
+        Appointment cancelled = legacyAppointment(cancelledSlot, LocalDateTime.now().minusDays(1));
+        cancelled.setCancelBy(patient);
+        cancelled.setCancelAt(LocalDateTime.now());
+        appointmentRepository.save(cancelled);
+
+        assertEquals(1, schemaMigrations.backfillActiveScheduleIds());
+
+        assertEquals(doubleBooked.getScheduleId(), activeScheduleId(earliest));
+        assertNull(activeScheduleId(later));
+        assertEquals(held.getScheduleId(), activeScheduleId(holder));
+        assertNull(activeScheduleId(legacy));
+        assertNull(activeScheduleId(cancelled));
+
+        assertEquals(0, schemaMigrations.backfillActiveScheduleIds());
+    }
+
+    // As booked before active_schedule_id existed
+    private Appointment legacyAppointment(Schedule schedule, LocalDateTime date) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientName(patient.getName());
+        appointment.setPatientPhone(patient.getPhone());
+        appointment.setPatient(patient);
+        appointment.setSchedule(schedule);
+        appointmentRepository.save(appointment);
+
+        // The booking time is set on insert
+        appointment.setDate(date);
+        return appointmentRepository.save(appointment);
+    }
+
+    private UUID activeScheduleId(Appointment appointment) {
+        return appointmentRepository.findById(appointment.getAppointmentId()).orElseThrow().getActiveScheduleId();
+    }
+}
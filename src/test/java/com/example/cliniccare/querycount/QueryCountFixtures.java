@@ -0,0 +1,117 @@
+package com.example.cliniccare.querycount;
+
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.Feedback;
+import com.example.cliniccare.entity.Payment;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.repository.DoctorProfileRepository;
+import com.example.cliniccare.repository.FeedbackRepository;
+import com.example.cliniccare.repository.PaymentRepository;
+import com.example.cliniccare.repository.ScheduleRepository;
+import com.example.cliniccare.repository.ServiceRepository;
+import com.example.cliniccare.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+// Rows for query count tests. Give every row its own related rows so a lazy load per row shows up.
+public class QueryCountFixtures {
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final ServiceRepository serviceRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final PaymentRepository paymentRepository;
+    private final FeedbackRepository feedbackRepository;
+
+    @Autowired
+    public QueryCountFixtures(
+            JdbcTemplate jdbcTemplate,
+            UserRepository userRepository,
+            DoctorProfileRepository doctorProfileRepository,
+            ServiceRepository serviceRepository,
+            ScheduleRepository scheduleRepository,
+            PaymentRepository paymentRepository,
+            FeedbackRepository feedbackRepository
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.doctorProfileRepository = doctorProfileRepository;
+        this.serviceRepository = serviceRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.paymentRepository = paymentRepository;
+        this.feedbackRepository = feedbackRepository;
+    }
+
+    public void reset() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = CURRENT_SCHEMA",
+                String.class
+        ).forEach(table -> jdbcTemplate.execute("TRUNCATE TABLE " + table));
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    public User patient(int i) {
+        User patient = new User();
+        patient.setName("Patient " + i);
+        patient.setEmail("patient" + i + "@cliniccare.com");
+        patient.setPhone("0123456789");
+        return userRepository.save(patient);
+    }
+
+    public DoctorProfile doctor(int i) {
+        User user = new User();
+        user.setName("Doctor " + i);
+        user.setEmail("doctor" + i + "@cliniccare.com");
+        userRepository.save(user);
+
+        DoctorProfile doctor = new DoctorProfile();
+        doctor.setUser(user);
+        doctor.setSpecialty("General");
+        return doctorProfileRepository.save(doctor);
+    }
+
+    public Service service(int i) {
+        Service service = new Service();
+        service.setName("Service " + i);
+        service.setPrice(100000);
+        service.setStatus(Service.ServiceStatus.AVAILABLE);
+        return serviceRepository.save(service);
+    }
+
+    public Schedule schedule(DoctorProfile doctor, Service service, LocalDateTime dateTime) {
+        Schedule schedule = new Schedule();
+        schedule.setDoctor(doctor);
+        schedule.setService(service);
+        schedule.setDateTime(dateTime);
+        schedule.setDuration(30);
+        schedule.setStatus(Schedule.ScheduleStatus.AVAILABLE);
+        return scheduleRepository.save(schedule);
+    }
+
+    public Payment paidPayment(User patient, Service service) {
+        Payment payment = new Payment();
+        payment.setPatient(patient);
+        payment.setService(service);
+        payment.setTotalPrice(service.getPrice());
+        payment.setMethod(Payment.PaymentMethod.CASH);
+        paymentRepository.save(payment);
+
+        // Payments are always created as PENDING
+        payment.setStatus(Payment.PaymentStatus.PAID);
+        return paymentRepository.save(payment);
+    }
+
+    public Feedback feedback(User patient, DoctorProfile doctor, Service service) {
+        Feedback feedback = new Feedback();
+        feedback.setPatient(patient);
+        feedback.setDoctor(doctor);
+        feedback.setService(service);
+        feedback.setFeedback("Good");
+        return feedbackRepository.save(feedback);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.cliniccare.querycount;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// JPA slice over its own in-memory H2 in MySQL mode with Hibernate statistics on, for tests that
+// bound the statements a service method may run. Services under test still need their own @Import.
+// Not transactional, so every service call opens and closes its persistence context like in production.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;" +
+                "NON_KEYWORDS=DATE,MONTH,YEAR,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// The slice leaves Jackson out, but the export services write JSON with the application's ObjectMapper
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({QueryCounter.class, QueryCountFixtures.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public @interface QueryCountTest {
+}
@@ -0,0 +1,48 @@
+package com.example.cliniccare.querycount;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Counts the JDBC statements Hibernate prepares while a block runs. Statistics are global to the
+// session factory, so blocks must not run concurrently with other database work.
+public class QueryCounter {
+    private final Statistics statistics;
+
+    @Autowired
+    public QueryCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public long count(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    public <T> T assertAtMost(long maxStatements, Supplier<T> action) {
+        statistics.clear();
+        T result = action.get();
+
+        long statements = statistics.getPrepareStatementCount();
+        if (statements > maxStatements) {
+            fail(String.format(
+                    "Expected at most %d statements but %d were prepared " +
+                            "(%d lazy entity loads, %d lazy collection loads), queries: %s",
+                    maxStatements,
+                    statements,
+                    statistics.getEntityFetchCount(),
+                    statistics.getCollectionFetchCount(),
+                    String.join(" | ", statistics.getQueries())
+            ));
+        }
+
+        return result;
+    }
+}
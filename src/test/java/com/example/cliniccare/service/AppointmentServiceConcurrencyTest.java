@@ -0,0 +1,233 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.dto.AppointmentDTO;
+import com.example.cliniccare.entity.AppointmentView;
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.OutboxMessage;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.exception.ConflictException;
+import com.example.cliniccare.migration.SchemaMigrations;
+import com.example.cliniccare.querycount.QueryCountFixtures;
+import com.example.cliniccare.repository.AppointmentRepository;
+import com.example.cliniccare.repository.AppointmentViewRepository;
+import com.example.cliniccare.repository.DoctorProfileRepository;
+import com.example.cliniccare.repository.OutboxMessageRepository;
+import com.example.cliniccare.repository.ScheduleRepository;
+import com.example.cliniccare.repository.ServiceRepository;
+import com.example.cliniccare.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000;" +
+                "NON_KEYWORDS=DATE,MONTH,YEAR,VALUE,USER",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({
+        AppointmentService.class,
+        PaginationService.class,
+        PaginationCountCache.class,
+        SearchService.class,
+        CatalogCache.class,
+        AvailabilityIndex.class,
+        AppointmentViewService.class,
+        OutboxService.class,
+        EmailTemplateService.class,
+        DailyStatsService.class,
+        SchemaMigrations.class,
+        QueryCountFixtures.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppointmentServiceConcurrencyTest {
+    private static final int ATTEMPTS = 2000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorProfileRepository doctorProfileRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private AppointmentViewRepository appointmentViewRepository;
+
+    @Autowired
+    private SchemaMigrations schemaMigrations;
+
+    @Autowired
+    private QueryCountFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The tests share one database
+    @BeforeEach
+    void setUp() {
+        fixtures.reset();
+    }
+
+    @Test
+    void concurrentBookingsOfOneScheduleCreateExactlyOneAppointment() throws Exception {
+        User patient = new User();
+        patient.setName("Patient");
+        patient.setEmail("patient@cliniccare.com");
+        userRepository.save(patient);
+
+        User doctorUser = new User();
+        doctorUser.setName("Doctor");
+        doctorUser.setEmail("doctor@cliniccare.com");
+        userRepository.save(doctorUser);
+
+        DoctorProfile doctor = new DoctorProfile();
+        doctor.setUser(doctorUser);
+        doctor.setSpecialty("General");
+        doctorProfileRepository.save(doctor);
+
+        Service service = new Service();
+        service.setName("Checkup");
+        service.setPrice(100000);
+        service.setStatus(Service.ServiceStatus.AVAILABLE);
+        serviceRepository.save(service);
+
+        Schedule schedule = new Schedule();
+        schedule.setDoctor(doctor);
+        schedule.setService(service);
+        schedule.setDateTime(LocalDateTime.now().plusDays(1));
+        schedule.setDuration(30);
+        schedule.setStatus(Schedule.ScheduleStatus.AVAILABLE);
+        scheduleRepository.save(schedule);
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                AppointmentDTO request = new AppointmentDTO();
+                request.setPatientId(patient.getUserId());
+                request.setScheduleId(schedule.getScheduleId());
+                request.setPatientName("Patient");
+                request.setPatientPhone("0123456789");
+
+                try {
+                    start.await();
+                    appointmentService.createAppointment(request);
+                    booked.incrementAndGet();
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(List.of(), unexpected);
+        assertEquals(1, booked.get());
+        assertEquals(ATTEMPTS - 1, conflicts.get());
+        assertEquals(1, appointmentRepository.count());
+        assertEquals(
+                Schedule.ScheduleStatus.BOOKED,
+                scheduleRepository.findById(schedule.getScheduleId()).orElseThrow().getStatus()
+        );
+        assertEquals(
+                List.of(OutboxMessage.MessageType.EMAIL, OutboxMessage.MessageType.NOTIFICATION),
+                outboxMessageRepository.findAll().stream()
+                        .map(OutboxMessage::getType)
+                        .sorted()
+                        .toList()
+        );
+        assertEquals(
+                List.of(AppointmentView.Status.ACTIVE),
+                appointmentViewRepository.findAll().stream().map(AppointmentView::getStatus).toList()
+        );
+    }
+
+    @Test
+    void cancelledScheduleCanBeBookedAgain() {
+        // The unique key the former @OneToOne mapping left on existing databases
+        jdbcTemplate.execute("ALTER TABLE appointments ADD CONSTRAINT uk_appointments_schedule_id UNIQUE (schedule_id)");
+        assertEquals(1, schemaMigrations.dropLegacyScheduleUniqueKeys());
+
+        User patient = fixtures.patient(0);
+        Schedule schedule = fixtures.schedule(fixtures.doctor(0), fixtures.service(0), LocalDateTime.now().plusDays(1));
+
+        AppointmentDTO first = appointmentService.createAppointment(bookingRequest(patient, schedule));
+
+        AppointmentDTO cancellation = new AppointmentDTO();
+        cancellation.setCancelBy(patient.getUserId());
+        cancellation.setCancelReason("Busy");
+        appointmentService.cancelAppointment(first.getAppointmentId(), cancellation);
+
+        AppointmentDTO second = appointmentService.createAppointment(bookingRequest(patient, schedule));
+
+        assertNotEquals(first.getAppointmentId(), second.getAppointmentId());
+        assertEquals(2, appointmentRepository.count());
+        assertNull(appointmentRepository.findById(first.getAppointmentId()).orElseThrow().getActiveScheduleId());
+        assertEquals(
+                schedule.getScheduleId(),
+                appointmentRepository.findById(second.getAppointmentId()).orElseThrow().getActiveScheduleId()
+        );
+        assertEquals(
+                Schedule.ScheduleStatus.BOOKED,
+                scheduleRepository.findById(schedule.getScheduleId()).orElseThrow().getStatus()
+        );
+    }
+
+    private AppointmentDTO bookingRequest(User patient, Schedule schedule) {
+        AppointmentDTO request = new AppointmentDTO();
+        request.setPatientId(patient.getUserId());
+        request.setScheduleId(schedule.getScheduleId());
+        request.setPatientName(patient.getName());
+        request.setPatientPhone(patient.getPhone());
+        return request;
+    }
+}
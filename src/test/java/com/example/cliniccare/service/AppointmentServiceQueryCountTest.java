@@ -0,0 +1,96 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.dto.AppointmentDTO;
+import com.example.cliniccare.dto.PaginationDTO;
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.querycount.QueryCountFixtures;
+import com.example.cliniccare.querycount.QueryCountTest;
+import com.example.cliniccare.querycount.QueryCounter;
+import com.example.cliniccare.response.PaginationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QueryCountTest
+@Import({
+        AppointmentService.class,
+        PaginationService.class,
+        PaginationCountCache.class,
+        SearchService.class,
+        CatalogCache.class,
+        AvailabilityIndex.class,
+        AppointmentViewService.class,
+        OutboxService.class,
+        EmailTemplateService.class,
+        DailyStatsService.class
+})
+class AppointmentServiceQueryCountTest {
+    private static final int ROWS = 10;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private QueryCountFixtures fixtures;
+
+    private User patient;
+    private DoctorProfile doctor;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.reset();
+
+        for (int i = 0; i < ROWS; i++) {
+            patient = fixtures.patient(i);
+            doctor = fixtures.doctor(i);
+            Schedule schedule = fixtures.schedule(doctor, fixtures.service(i), LocalDateTime.now().plusDays(i + 1));
+
+            AppointmentDTO request = new AppointmentDTO();
+            request.setPatientId(patient.getUserId());
+            request.setScheduleId(schedule.getScheduleId());
+            request.setPatientName(patient.getName());
+            request.setPatientPhone(patient.getPhone());
+            appointmentService.createAppointment(request);
+        }
+    }
+
+    @Test
+    void lastPageRunsOneStatement() {
+        PaginationResponse<List<AppointmentDTO>> response = queryCounter.assertAtMost(1, () ->
+                appointmentService.getAppointments(page(ROWS), null, null, null, null, null));
+
+        assertEquals(ROWS, response.getData().size());
+    }
+
+    @Test
+    void fullPageAddsTheCount() {
+        queryCounter.assertAtMost(2, () ->
+                appointmentService.getAppointments(page(ROWS / 2), null, null, "active", null, null));
+    }
+
+    @Test
+    void patientAndDoctorFiltersAddOneLookupEach() {
+        PaginationResponse<List<AppointmentDTO>> byPatient = queryCounter.assertAtMost(2, () ->
+                appointmentService.getAppointments(page(ROWS), null, null, null, patient.getUserId(), null));
+        PaginationResponse<List<AppointmentDTO>> byDoctor = queryCounter.assertAtMost(2, () ->
+                appointmentService.getAppointments(page(ROWS), null, null, null, null, doctor.getUser().getUserId()));
+
+        assertEquals(1, byPatient.getData().size());
+        assertEquals(1, byDoctor.getData().size());
+    }
+
+    private PaginationDTO page(int size) {
+        return new PaginationDTO(1, size, "date", "desc");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.dto.FeedbackDTO;
+import com.example.cliniccare.dto.PaginationDTO;
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.querycount.QueryCountFixtures;
+import com.example.cliniccare.querycount.QueryCountTest;
+import com.example.cliniccare.querycount.QueryCounter;
+import com.example.cliniccare.response.PaginationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QueryCountTest
+@Import({
+        FeedbackService.class,
+        PaginationService.class,
+        PaginationCountCache.class,
+        SearchService.class,
+        CatalogCache.class
+})
+class FeedbackServiceQueryCountTest {
+    private static final int ROWS = 10;
+
+    @Autowired
+    private FeedbackService feedbackService;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private QueryCountFixtures fixtures;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User patient;
+    private DoctorProfile doctor;
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.reset();
+
+        for (int i = 0; i < ROWS; i++) {
+            patient = fixtures.patient(i);
+            doctor = fixtures.doctor(i);
+            service = fixtures.service(i);
+            fixtures.feedback(patient, doctor, service);
+        }
+    }
+
+    @Test
+    void lastPageRunsOneStatement() {
+        PaginationResponse<List<FeedbackDTO>> response = queryCounter.assertAtMost(1, () ->
+                feedbackService.getFeedbacks(page(ROWS, "createAt"), null, null, null, null, null));
+
+        assertEquals(ROWS, response.getData().size());
+    }
+
+    @Test
+    void fullPageAddsTheCount() {
+        queryCounter.assertAtMost(2, () ->
+                feedbackService.getFeedbacks(page(ROWS / 2, "createAt"), null, null, null, null, null));
+    }
+
+    @Test
+    void sortingOnRelatedNamesRunsOneStatement() {
+        queryCounter.assertAtMost(1, () ->
+                feedbackService.getFeedbacks(page(ROWS, "doctorName"), null, null, null, null, null));
+    }
+
+    @Test
+    void filtersAddOneLookupEach() {
+        PaginationResponse<List<FeedbackDTO>> response = queryCounter.assertAtMost(4, () ->
+                feedbackService.getFeedbacks(
+                        page(ROWS, "createAt"),
+                        null,
+                        null,
+                        doctor.getUser().getUserId(),
+                        patient.getUserId(),
+                        service.getServiceId()
+                ));
+
+        assertEquals(1, response.getData().size());
+    }
+
+    @Test
+    void keysetPagesKeepRowsWithoutTheSortedAssociation() {
+        // Feedback about a doctor only has no service, so its serviceName key is NULL
+        for (int i = 0; i < ROWS; i++) {
+            fixtures.feedback(patient, doctor, null);
+        }
+
+        for (String order : List.of("asc", "desc")) {
+            Set<UUID> seen = new HashSet<>();
+            String cursor = "";
+
+            do {
+                PaginationResponse<List<FeedbackDTO>> response = feedbackService.getFeedbacks(
+                        new PaginationDTO(1, 3, "serviceName", order, cursor, "none"), null, null, null, null, null);
+
+                response.getData().forEach(feedback ->
+                        assertTrue(seen.add(feedback.getFeedbackId()), "Feedback repeated across pages"));
+                cursor = objectMapper.valueToTree(response).path("meta").path("nextCursor").textValue();
+            } while (cursor != null);
+
+            assertEquals(ROWS * 2, seen.size(), "Feedback missing when sorting by serviceName " + order);
+        }
+    }
+
+    private PaginationDTO page(int size, String sortBy) {
+        return new PaginationDTO(1, size, sortBy, "desc");
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.dto.PaginationDTO;
+import com.example.cliniccare.entity.Appointment;
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.MedicalRecord;
+import com.example.cliniccare.entity.Payment;
+import com.example.cliniccare.entity.Schedule;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.querycount.QueryCountFixtures;
+import com.example.cliniccare.querycount.QueryCountTest;
+import com.example.cliniccare.querycount.QueryCounter;
+import com.example.cliniccare.repository.AppointmentRepository;
+import com.example.cliniccare.repository.MedicalRecordRepository;
+import com.example.cliniccare.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QueryCountTest
+@TestPropertySource(properties = {
+        "vnp_TmnCode=test",
+        "vnp_HashSecret=test",
+        "vnp_PayUrl=http://localhost/pay",
+        "vnp_ReturnUrl=http://localhost/return"
+})
+@Import({
+        ScheduleService.class,
+        PaymentService.class,
+        MedicalRecordService.class,
+        AppointmentService.class,
+        PaginationService.class,
+        ListStreamService.class,
+        PaginationCountCache.class,
+        SearchService.class,
+        CatalogCache.class,
+        AvailabilityIndex.class,
+        AppointmentViewService.class,
+        OutboxService.class,
+        EmailTemplateService.class,
+        DailyStatsService.class,
+        TopServiceLeaderboard.class
+})
+class FetchPlanQueryCountTest {
+    private static final int ROWS = 5;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private ListStreamService listStreamService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private QueryCountFixtures fixtures;
+
+    private final List<Schedule> schedules = new ArrayList<>();
+    private final List<Payment> payments = new ArrayList<>();
+    private final List<MedicalRecord> medicalRecords = new ArrayList<>();
+    private final List<Appointment> appointments = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        fixtures.reset();
+
+        // Every row points at its own patient, doctor and service, so a lazy load per row would show
+        for (int i = 0; i < ROWS; i++) {
+            User patient = fixtures.patient(i);
+            DoctorProfile doctor = fixtures.doctor(i);
+            Service service = fixtures.service(i);
+
+            Schedule schedule = fixtures.schedule(doctor, service, LocalDateTime.now().plusDays(i + 1));
+            schedules.add(schedule);
+
+            Payment payment = new Payment();
+            payment.setPatient(patient);
+            payment.setService(service);
+            payment.setTotalPrice(100000);
+            payment.setMethod(Payment.PaymentMethod.CASH);
+            payments.add(paymentRepository.save(payment));
+
+            MedicalRecord medicalRecord = new MedicalRecord();
+            medicalRecord.setPatient(patient);
+            medicalRecord.setDoctor(doctor);
+            medicalRecord.setService(service);
+            medicalRecord.setDescription("Checkup " + i);
+            medicalRecords.add(medicalRecordRepository.save(medicalRecord));
+
+            Appointment appointment = new Appointment();
+            appointment.setSchedule(schedule);
+            appointment.setActiveScheduleId(schedule.getScheduleId());
+            appointment.setPatient(patient);
+            appointment.setPatientName("Patient " + i);
+            appointment.setPatientPhone("0123456789");
+            appointments.add(appointmentRepository.save(appointment));
+        }
+    }
+
+    @Test
+    void scheduleEndpointsLoadTheirDtoInOneStatement() {
+        assertStatements(1, () -> scheduleService.getSchedules(
+                page(ROWS + 1, "dateTime"), null, null, null, null, null, null));
+        assertStatements(1, () -> stream(scheduleService.getAllSchedules(null)));
+        assertStatements(1, () -> scheduleService.getScheduleById(schedules.getFirst().getScheduleId()));
+    }
+
+    @Test
+    void fullPageAddsOnlyTheCountStatement() {
+        assertStatements(2, () -> scheduleService.getSchedules(
+                page(ROWS - 1, "dateTime"), null, null, null, null, null, null));
+    }
+
+    @Test
+    void paymentEndpointsLoadTheirDtoInOneStatement() {
+        assertStatements(1, () -> paymentService.getPayments(
+                page(ROWS + 1, "date"), null, null, null, null, null, null, null));
+        assertStatements(1, () -> stream(paymentService.getAllPayments()));
+        assertStatements(1, () -> paymentService.getPaymentById(payments.getFirst().getPaymentId()));
+    }
+
+    @Test
+    void medicalRecordEndpointsLoadTheirDtoInOneStatement() {
+        assertStatements(1, () -> medicalRecordService.getMedicalRecord(
+                page(ROWS + 1, "createAt"), null, null, null, null, null));
+        assertStatements(1, () -> stream(medicalRecordService.getAllMedicalRecords()));
+        assertStatements(1, () -> medicalRecordService.getMedicalRecordById(
+                medicalRecords.getFirst().getMedicalRecordId()));
+    }
+
+    @Test
+    void appointmentEndpointsLoadTheirDtoInOneStatement() {
+        assertStatements(1, () -> stream(appointmentService.getAllAppointments()));
+        assertStatements(1, () -> appointmentService.getAppointmentById(
+                appointments.getFirst().getAppointmentId()));
+    }
+
+    private PaginationDTO page(int size, String sortBy) {
+        return new PaginationDTO(1, size, sortBy, "desc");
+    }
+
+    private void stream(ListStreamService.Source<?, ?> source) {
+        try {
+            listStreamService.write(OutputStream.nullOutputStream(), "test", source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void assertStatements(long expected, Runnable endpoint) {
+        assertEquals(expected, queryCounter.count(endpoint));
+    }
+}
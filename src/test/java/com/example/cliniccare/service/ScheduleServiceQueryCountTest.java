@@ -0,0 +1,88 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.dto.PaginationDTO;
+import com.example.cliniccare.dto.ScheduleDTO;
+import com.example.cliniccare.entity.DoctorProfile;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.querycount.QueryCountFixtures;
+import com.example.cliniccare.querycount.QueryCountTest;
+import com.example.cliniccare.querycount.QueryCounter;
+import com.example.cliniccare.response.PaginationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QueryCountTest
+@Import({
+        ScheduleService.class,
+        PaginationService.class,
+        PaginationCountCache.class,
+        SearchService.class,
+        CatalogCache.class,
+        AvailabilityIndex.class
+})
+class ScheduleServiceQueryCountTest {
+    private static final int ROWS = 10;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private QueryCountFixtures fixtures;
+
+    private DoctorProfile doctor;
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.reset();
+
+        for (int i = 0; i < ROWS; i++) {
+            doctor = fixtures.doctor(i);
+            service = fixtures.service(i);
+            fixtures.schedule(doctor, service, LocalDateTime.now().plusDays(i + 1));
+        }
+    }
+
+    @Test
+    void lastPageRunsOneStatement() {
+        PaginationResponse<List<ScheduleDTO>> response = queryCounter.assertAtMost(1, () -> scheduleService.getSchedules(
+                new PaginationDTO(1, ROWS, "dateTime", "desc"), null, null, null, null, null, null));
+
+        assertEquals(ROWS, response.getData().size());
+    }
+
+    @Test
+    void fullPageAddsTheCount() {
+        queryCounter.assertAtMost(2, () -> scheduleService.getSchedules(
+                new PaginationDTO(1, ROWS / 2, "dateTime", "desc"), null, null, null, null, null, null));
+    }
+
+    @Test
+    void filtersAddOneLookupEach() {
+        PaginationResponse<List<ScheduleDTO>> response = queryCounter.assertAtMost(3, () -> scheduleService.getSchedules(
+                new PaginationDTO(1, ROWS, "dateTime", "desc"),
+                null, null, null, null, service.getServiceId(), doctor.getUser().getUserId()));
+
+        assertEquals(1, response.getData().size());
+    }
+
+    @Test
+    void keysetAndUncountedPagesSkipTheCount() {
+        queryCounter.assertAtMost(1, () -> scheduleService.getSchedules(
+                new PaginationDTO(1, ROWS / 2, "dateTime", "desc", "", "exact"),
+                null, null, null, null, null, null));
+        queryCounter.assertAtMost(1, () -> scheduleService.getSchedules(
+                new PaginationDTO(1, ROWS / 2, "dateTime", "desc", null, "none"),
+                null, null, null, null, null, null));
+    }
+}
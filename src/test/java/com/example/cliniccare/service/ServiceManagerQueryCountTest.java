@@ -0,0 +1,66 @@
+package com.example.cliniccare.service;
+
+import com.example.cliniccare.dto.TopServiceDTO;
+import com.example.cliniccare.entity.Service;
+import com.example.cliniccare.entity.User;
+import com.example.cliniccare.querycount.QueryCountFixtures;
+import com.example.cliniccare.querycount.QueryCountTest;
+import com.example.cliniccare.querycount.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QueryCountTest
+@Import({
+        ServiceManager.class,
+        TopServiceLeaderboard.class,
+        PaginationService.class,
+        PaginationCountCache.class,
+        SearchService.class,
+        CatalogCache.class,
+        FirebaseStorageService.class
+})
+class ServiceManagerQueryCountTest {
+    private static final int SERVICES = 10;
+
+    @Autowired
+    private ServiceManager serviceManager;
+
+    @Autowired
+    private TopServiceLeaderboard topServiceLeaderboard;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private QueryCountFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.reset();
+        topServiceLeaderboard.invalidate();
+
+        // Service i is paid for i + 1 times, each time by its own patient
+        int patients = 0;
+        for (int i = 0; i < SERVICES; i++) {
+            Service service = fixtures.service(i);
+            for (int j = 0; j <= i; j++) {
+                User patient = fixtures.patient(patients++);
+                fixtures.paidPayment(patient, service);
+            }
+        }
+    }
+
+    @Test
+    void topServicesRunOneAggregateThenServeFromMemory() {
+        List<TopServiceDTO> top = queryCounter.assertAtMost(1, () -> serviceManager.getTopServices(3));
+        queryCounter.assertAtMost(0, () -> serviceManager.getTopServices(SERVICES));
+
+        assertEquals(List.of("Service 9", "Service 8", "Service 7"), top.stream().map(TopServiceDTO::getName).toList());
+    }
+}